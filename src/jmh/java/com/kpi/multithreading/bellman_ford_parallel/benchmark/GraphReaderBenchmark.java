@@ -0,0 +1,87 @@
+package com.kpi.multithreading.bellman_ford_parallel.benchmark;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.service.generators.GraphGenerator;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.BinaryGraphReader;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.GraphReader;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.BinaryGraphWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a synthetic graph from the text format, in parallel, and from the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphReaderBenchmark {
+
+    @Param({"ERDOS_RENYI", "RMAT"})
+    public GraphGenerator.Type graphType;
+
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    @Param({"1", "4"})
+    public int readers;
+
+    private Path textFile;
+
+    private Path binaryFile;
+
+    private GraphReader graphReader;
+
+    private final BinaryGraphReader binaryGraphReader = new BinaryGraphReader();
+
+    @Setup
+    public void setUp() throws IOException {
+        final AdjacencyListGraph graph = new GraphGenerator(graphType, vertices, 8L * vertices, 42).generate();
+        textFile = Files.createTempFile("benchmark", ".txt");
+        binaryFile = Files.createTempFile("benchmark", ".bin");
+        try (BufferedWriter writer = Files.newBufferedWriter(textFile)) {
+            for (int u = 0; u < graph.getVerticesNumber(); u++) {
+                for (int j = graph.getOffsets()[u]; j < graph.getOffsets()[u + 1]; j++) {
+                    writer.write(u + " " + graph.getTargets()[j] + " " + graph.getWeights()[j]);
+                    writer.newLine();
+                }
+            }
+        }
+        new BinaryGraphWriter().write(graph, binaryFile.toString());
+        graphReader = new GraphReader(readers);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(textFile);
+        Files.deleteIfExists(binaryFile);
+    }
+
+    @Benchmark
+    public AdjacencyListGraph readText() throws IOException {
+        return graphReader.readWeightedGraph(textFile.toString(), 0);
+    }
+
+    @Benchmark
+    public AdjacencyListGraph readBinary() throws IOException {
+        return binaryGraphReader.read(binaryFile.toString());
+    }
+}
@@ -0,0 +1,73 @@
+package com.kpi.multithreading.bellman_ford_parallel.benchmark;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordParallel;
+import com.kpi.multithreading.bellman_ford_parallel.service.DeltaStepping;
+import com.kpi.multithreading.bellman_ford_parallel.service.ShortestPathSolver;
+import com.kpi.multithreading.bellman_ford_parallel.service.SpfaParallel;
+import com.kpi.multithreading.bellman_ford_parallel.service.generators.GraphGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel solvers on synthetic graphs across thread counts. The solver is created once per trial,
+ * so the measurement covers the solves only, not the thread pool start-up or the layout of the graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSolverBenchmark {
+
+    @Param({"ERDOS_RENYI", "GRID", "RMAT"})
+    public GraphGenerator.Type graphType;
+
+    @Param({"10000", "100000"})
+    public int vertices;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"TASKS", "BARRIER", "PUSH", "WORK_STEALING", "SPFA", "DELTA"})
+    public String solver;
+
+    private AdjacencyListGraph graph;
+
+    private ShortestPathSolver instance;
+
+    @Setup
+    public void setUp() {
+        graph = new GraphGenerator(graphType, vertices, 8L * vertices, 42).generate();
+        instance = switch (solver) {
+            case "SPFA" -> new SpfaParallel(threads);
+            case "DELTA" -> new DeltaStepping(threads);
+            default -> new BellmanFordParallel(threads, BellmanFordParallel.Strategy.valueOf(solver));
+        };
+        instance.solve(graph, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        instance.close();
+    }
+
+    @Benchmark
+    public ShortestPathResult solve() {
+        return instance.solve(graph, 0);
+    }
+}
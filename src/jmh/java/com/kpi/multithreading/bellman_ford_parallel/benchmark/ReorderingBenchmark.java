@@ -0,0 +1,99 @@
+package com.kpi.multithreading.bellman_ford_parallel.benchmark;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ReorderedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordParallel;
+import com.kpi.multithreading.bellman_ford_parallel.service.generators.GraphGenerator;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel solver on synthetic graphs renumbered by each vertex ordering. Besides the time it reports the
+ * number of rounds, which the ordering changes as well, because the pull strategies update in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReorderingBenchmark {
+
+    @Param({"ERDOS_RENYI", "GRID", "RMAT"})
+    public GraphGenerator.Type graphType;
+
+    @Param({"100000", "1000000"})
+    public int vertices;
+
+    @Param({"NONE", "BFS", "REVERSE_CUTHILL_MCKEE", "DEGREE"})
+    public String order;
+
+    @Param({"TASKS", "BARRIER"})
+    public BellmanFordParallel.Strategy strategy;
+
+    @Param({"4"})
+    public int threads;
+
+    private AdjacencyListGraph graph;
+
+    private int source;
+
+    private BellmanFordParallel solver;
+
+    /**
+     * Rounds of the last solve, reported next to the time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Rounds {
+
+        public int rounds;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            rounds = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        final AdjacencyListGraph generated = new GraphGenerator(graphType, vertices, 8L * vertices, 42).generate();
+        if (order.equals("NONE")) {
+            graph = generated;
+            source = 0;
+        } else {
+            final ReorderedGraph reordered = ReorderedGraph.of(generated, ReorderedGraph.Order.valueOf(order));
+            graph = reordered.getGraph();
+            source = reordered.toReordered(0);
+        }
+        solver = new BellmanFordParallel(threads, strategy);
+        solver.solve(graph, source);
+    }
+
+    @TearDown
+    public void tearDown() {
+        solver.close();
+    }
+
+    @Benchmark
+    public ShortestPathResult solve(Rounds rounds) {
+        final ShortestPathResult result = solver.solve(graph, source);
+        rounds.rounds = result.getRounds();
+        return result;
+    }
+}
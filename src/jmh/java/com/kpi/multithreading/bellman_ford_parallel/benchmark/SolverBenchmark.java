@@ -0,0 +1,67 @@
+package com.kpi.multithreading.bellman_ford_parallel.benchmark;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordSequential;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordYen;
+import com.kpi.multithreading.bellman_ford_parallel.service.SpfaSequential;
+import com.kpi.multithreading.bellman_ford_parallel.service.generators.GraphGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded solvers on synthetic graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"ERDOS_RENYI", "GRID", "RMAT"})
+    public GraphGenerator.Type graphType;
+
+    @Param({"10000", "100000"})
+    public int vertices;
+
+    private AdjacencyListGraph graph;
+
+    private final BellmanFordSequential sequential = new BellmanFordSequential();
+
+    private final SpfaSequential spfa = new SpfaSequential();
+
+    private final BellmanFordYen yen = new BellmanFordYen();
+
+    @Setup
+    public void setUp() {
+        graph = new GraphGenerator(graphType, vertices, 8L * vertices, 42).generate();
+    }
+
+    @Benchmark
+    public ShortestPathResult sequential() {
+        return sequential.solve(graph, 0);
+    }
+
+    @Benchmark
+    public ShortestPathResult yen() {
+        return yen.solve(graph, 0);
+    }
+
+    @Benchmark
+    public ShortestPathResult spfa() {
+        return spfa.solve(graph, 0);
+    }
+}
@@ -1,61 +1,779 @@
 package com.kpi.multithreading.bellman_ford_parallel;
 
 import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.MappedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.PartitionedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RemappedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ReorderedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.VertexIdMap;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordBatch;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordDouble;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordLong;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordOutOfCore;
 import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordParallel;
 import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordSequential;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordYen;
+import com.kpi.multithreading.bellman_ford_parallel.service.DeltaStepping;
+import com.kpi.multithreading.bellman_ford_parallel.service.MetricsRecorder;
+import com.kpi.multithreading.bellman_ford_parallel.service.ShortestPathSolver;
+import com.kpi.multithreading.bellman_ford_parallel.service.SpfaParallel;
+import com.kpi.multithreading.bellman_ford_parallel.service.SpfaSequential;
+import com.kpi.multithreading.bellman_ford_parallel.service.generators.GraphGenerator;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.BinaryGraphReader;
 import com.kpi.multithreading.bellman_ford_parallel.service.readers.GraphReader;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.PartitionedGraphReader;
+import com.kpi.multithreading.bellman_ford_parallel.service.server.ShortestPathServer;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.BinaryDistanceWriter;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.BinaryGraphWriter;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.DistanceWriter;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.PartitionedGraphWriter;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.TextDistanceWriter;
 import org.apache.commons.cli.*;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 public class BellmanFordApplication {
 
     /**
-     * usage: Bellman-Ford parallel algorithm app -g <arg> [-h] -S <arg> [-s
-     *        <arg>] [-t <arg>] [-w <arg>]
+     * usage: Bellman-Ford parallel algorithm app [--batch <arg>] [--block-edges
+     *        <arg>] [--delta <arg>] [--distances <arg>] [-f <arg>] -g <arg>
+     *        [--grain <arg>] [-h] [--metrics <arg>] [-n <arg>] [-o <arg>]
+     *        [--order <arg>] [--out-of-core <arg>] [-r <arg>] [--remap] -S <arg>
+     *        | --sources <arg> [-s <arg>] [-t <arg>] [--targets <arg>] [-w <arg>]
      * Argument description:
+     *     --batch <arg>      Number of sources relaxed per edge scan with
+     *                        --sources. 8 by default.
+     *     --block-edges <arg>  Number of edges per block of a new partition
+     *                        file. 4194304 by default.
+     *     --delta <arg>      Bucket width of the delta type. Tuned from the
+     *                        weights by default.
+     *     --distances <arg>  Distance type (int/long/double/auto). int
+     *                        reports paths of 2^31 - 1 or longer as
+     *                        unreachable, auto switches to long when they
+     *                        could occur. Default int.
+     *  -f,--format <arg>     Format of the distances (text/binary). Default
+     *                        text.
      *  -g,--graph <arg>      Path to the graph file.
+     *     --grain <arg>      Number of edges per task of the parallel
+     *                        algorithms. Tuned automatically by default.
      *  -h,--help             To ask to print the help.
+     *     --metrics <arg>    Path of a file to write the solver metrics to
+     *                        as JSON, - for the standard output.
+     *  -n,--threads <arg>    Number of threads of the parallel algorithms. 10
+     *                        by default.
+     *  -o,--output <arg>     Path of the file to write the distances to, - for
+     *                        the standard output. Default -.
+     *     --order <arg>      Vertex ordering applied at load time for cache
+     *                        locality (none/bfs/rcm/degree). Default none.
+     *     --out-of-core <arg>  Path of a partition file to solve a binary
+     *                        graph file out of core, built if it does not
+     *                        exist.
+     *  -r,--readers <arg>    Number of threads used to parse the graph file.
+     *                        1 by default.
+     *     --remap            Node ids of the graph file are arbitrary 64-bit
+     *                        ids, compacted to dense ids at load time.
      *  -S,--source <arg>     Defines the source node of the graph.
-     *  -s,--weighted <arg>   Defines the number of lines to skip in the graph
+     *  -s,--skip <arg>       Defines the number of lines to skip in the graph
      *                        file.
+     *     --sources <arg>    Path to a file with source nodes separated by
+     *                        whitespace. Solves all of them in batches instead
+     *                        of -S.
      *  -t,--type <arg>       Type of Bellman-Ford algorithm
-     *                        (sequential/parallel). Default sequential.
+     *                        (auto/sequential/parallel/parallel-barrier/parall
+     *                        el-push/parallel-stealing/spfa/spfa-parallel/delt
+     *                        a/yen). auto runs delta for graphs without
+     *                        negative weights and sequential otherwise. Default
+     *                        auto.
+     *     --targets <arg>    Path to a file with the nodes to write the
+     *                        distances of, separated by whitespace. All nodes
+     *                        by default.
      *  -w,--weighted <arg>   Defines if the graph file represents weighted
      *                        graph. 1 - graph is weighted, 0 - graph is not
      *                        weighted. 1 by default.
+     * Graph files in the binary format are recognized automatically, -w, -s and -r are ignored for them.
+     * With long and double distances the text weights are parsed as 64-bit integers or decimals. The sequential,
+     * auto, spfa and yen types run the sequential wide solver, the other types its parallel one.
+     * Int distances saturate: a path of 2^31 - 1 or longer is written as unreachable, in every command.
+     * --distances auto checks (nodes - 1) * max |weight| instead and solves with long distances when it reaches
+     * 2^31 - 1, with -t auto on the engine of the type it resolves to. --sources needs int distances, so with auto
+     * it fails on such graphs, and it always runs the batch solver on -n threads, so it cannot be combined with -t,
+     * --grain or --delta. --out-of-core needs int distances.
+     * The text format writes a "# source S" line and one "node distance" line per node, unreachable nodes as INF.
+     * The binary format is described in {@link BinaryDistanceWriter}. Rounds and timings go to the standard error
+     * when binary distances go to the standard output. With --remap the external ids are written, and --remap
+     * is ignored for binary graph files, whose ids are dense already.
+     * --order renumbers the vertices internally, node ids on the command line and in the output stay the same.
+     * --out-of-core keeps only the distances on the heap and streams the in-edges from the memory-mapped partition
+     * file every round, ignoring -t. An existing partition file is reused, it must belong to the same graph.
+     *
+     * usage: Bellman-Ford parallel algorithm app convert -g <arg> [-h] -o <arg>
+     *        [-r <arg>] [-s <arg>] [-w <arg>]
+     * Converts a text graph file to the binary format.
+     *  -o,--output <arg>     Path of the binary graph file to write.
+     *
+     * usage: Bellman-Ford parallel algorithm app generate [-e <arg>] [-f <arg>]
+     *        [-h] [--max-weight <arg>] [--min-weight <arg>] [--negative-cycle]
+     *        -o <arg> [--seed <arg>] -t <arg> -v <arg>
+     * Streams a synthetic graph to a file.
+     *  -e,--edges <arg>         Expected number of edges, ignored by grid. 8
+     *                           per vertex by default.
+     *  -f,--format <arg>        Output format (text/binary). Default text.
+     *     --max-weight <arg>    Largest edge weight. 100 by default.
+     *     --min-weight <arg>    Smallest edge weight. 1 by default.
+     *     --negative-cycle      Plants a negative cycle reachable from node 0.
+     *  -o,--output <arg>        Path of the graph file to write.
+     *     --seed <arg>          Random seed. 42 by default.
+     *  -t,--type <arg>          Graph family (erdos-renyi/grid/rmat).
+     *  -v,--vertices <arg>      Number of vertices.
+     *
+     * usage: Bellman-Ford parallel algorithm app serve [--cache-mb <arg>]
+     *        [--delta <arg>] -g <arg> [--grain <arg>] [-h] [--handlers <arg>]
+     *        [--host <arg>] [--max-solves <arg>] [-n <arg>] [-p <arg>] [-r <arg>]
+     *        [-s <arg>] [-t <arg>] [-w <arg>]
+     * Loads the graph once and answers GET /distances?source=S[&targets=a,b] and GET /stats over HTTP.
+     *     --cache-mb <arg>     Memory budget of the cached results in MiB. 256
+     *                          by default, 0 disables the cache.
+     *     --handlers <arg>     Number of threads serving HTTP requests. 16 by
+     *                          default.
+     *     --host <arg>         Address to bind. localhost by default.
+     *     --max-solves <arg>   Largest number of concurrent solves. 2 by
+     *                          default.
+     *  -p,--port <arg>         Port to listen on. 8080 by default.
+     * -t, -n, --grain and --delta select the solver like for a single solve, every concurrent solve has its own
+     * instance. Distances are int and saturate like with --distances int.
      */
     public static void main(String[] args) throws IOException, ParseException {
+        if (args.length > 0 && args[0].equals("convert")) {
+            convert(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("generate")) {
+            generate(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            serve(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         final Option typeOption = Option.builder("t")
                 .required(false)
                 .hasArg(true)
-                .desc("Type of Bellman-Ford algorithm (sequential/parallel). Default sequential.")
+                .desc("Type of Bellman-Ford algorithm (auto/sequential/parallel/parallel-barrier/parallel-push/parallel-stealing/spfa/spfa-parallel/delta/yen). auto runs delta for graphs without negative weights and sequential otherwise. Default auto.")
                 .longOpt("type")
                 .build();
-        final Option graphOption = Option.builder("g")
+        final Option sourceOption = Option.builder("S")
+                .required(false)
+                .hasArg(true)
+                .desc("Defines the source node of the graph.")
+                .longOpt("source")
+                .build();
+        final Option sourcesOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Path to a file with source nodes separated by whitespace. Solves all of them in batches instead of -S.")
+                .longOpt("sources")
+                .build();
+        final Option batchOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Number of sources relaxed per edge scan with --sources. " + BellmanFordBatch.DEFAULT_BATCH_SIZE
+                        + " by default.")
+                .longOpt("batch")
+                .build();
+        final Option deltaOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Bucket width of the delta type. Tuned from the weights by default.")
+                .longOpt("delta")
+                .build();
+        final Option threadsOption = Option.builder("n")
+                .required(false)
+                .hasArg(true)
+                .desc("Number of threads of the parallel algorithms. 10 by default.")
+                .longOpt("threads")
+                .build();
+        final Option grainOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Number of edges per task of the parallel algorithms. Tuned automatically by default.")
+                .longOpt("grain")
+                .build();
+        final Option metricsOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Path of a file to write the solver metrics to as JSON, - for the standard output.")
+                .longOpt("metrics")
+                .build();
+        final Option distancesOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Distance type (int/long/double/auto). int reports paths of 2^31 - 1 or longer as unreachable, auto switches to long when they could occur. Default int.")
+                .longOpt("distances")
+                .build();
+        final Option remapOption = Option.builder()
+                .required(false)
+                .hasArg(false)
+                .desc("Node ids of the graph file are arbitrary 64-bit ids, compacted to dense ids at load time.")
+                .longOpt("remap")
+                .build();
+        final Option orderOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Vertex ordering applied at load time for cache locality (none/bfs/rcm/degree). Default none.")
+                .longOpt("order")
+                .build();
+        final Option outputOption = Option.builder("o")
+                .required(false)
+                .hasArg(true)
+                .desc("Path of the file to write the distances to, - for the standard output. Default -.")
+                .longOpt("output")
+                .build();
+        final Option formatOption = Option.builder("f")
+                .required(false)
+                .hasArg(true)
+                .desc("Format of the distances (text/binary). Default text.")
+                .longOpt("format")
+                .build();
+        final Option targetsOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Path to a file with the nodes to write the distances of, separated by whitespace. All nodes by default.")
+                .longOpt("targets")
+                .build();
+        final Option outOfCoreOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Path of a partition file to solve a binary graph file out of core, built if it does not exist.")
+                .longOpt("out-of-core")
+                .build();
+        final Option blockEdgesOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Number of edges per block of a new partition file. " + PartitionedGraphWriter.DEFAULT_BLOCK_EDGES
+                        + " by default.")
+                .longOpt("block-edges")
+                .build();
+        final Options options = graphOptions();
+        final CommandLineParser parser = new DefaultParser();
+
+        final OptionGroup sourceGroup = new OptionGroup();
+        sourceGroup.addOption(sourceOption);
+        sourceGroup.addOption(sourcesOption);
+        sourceGroup.setRequired(true);
+
+        options.addOption(typeOption);
+        options.addOptionGroup(sourceGroup);
+        options.addOption(batchOption);
+        options.addOption(threadsOption);
+        options.addOption(grainOption);
+        options.addOption(deltaOption);
+        options.addOption(metricsOption);
+        options.addOption(distancesOption);
+        options.addOption(remapOption);
+        options.addOption(orderOption);
+        options.addOption(outputOption);
+        options.addOption(formatOption);
+        options.addOption(targetsOption);
+        options.addOption(outOfCoreOption);
+        options.addOption(blockEdgesOption);
+
+        final CommandLine commandLine = parser.parse(options, args);
+
+        if (commandLine.hasOption("h")) {
+            HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("Bellman-Ford parallel algorithm app", "Argument description:", options, "", true);
+            return;
+        }
+        final String type = commandLine.getOptionValue("t", "auto");
+        final int threads = Integer.parseInt(commandLine.getOptionValue("n", "10"));
+        final int grain = Integer.parseInt(commandLine.getOptionValue("grain",
+                String.valueOf(BellmanFordParallel.AUTO_GRAIN_SIZE)));
+        final int delta = Integer.parseInt(commandLine.getOptionValue("delta",
+                String.valueOf(DeltaStepping.AUTO_DELTA)));
+        final String distances = commandLine.getOptionValue("distances", "int");
+        if (!distances.equals("int") && !distances.equals("auto") && commandLine.hasOption("sources")) {
+            throw new ParseException("Solving several sources needs int distances");
+        }
+        if (commandLine.hasOption("sources")
+                && (commandLine.hasOption("t") || commandLine.hasOption("grain") || commandLine.hasOption("delta"))) {
+            throw new ParseException("-t, --grain and --delta do not apply to the batch solver of --sources");
+        }
+        if (!distances.equals("int") && !distances.equals("auto")
+                && (commandLine.hasOption("remap") || commandLine.hasOption("order"))) {
+            throw new ParseException("Remapping and reordering node ids need int distances");
+        }
+        final ReorderedGraph.Order order = switch (commandLine.getOptionValue("order", "none")) {
+            case "none" -> null;
+            case "bfs" -> ReorderedGraph.Order.BFS;
+            case "rcm" -> ReorderedGraph.Order.REVERSE_CUTHILL_MCKEE;
+            case "degree" -> ReorderedGraph.Order.DEGREE;
+            default -> throw new ParseException("Vertex ordering is not correct");
+        };
+        final int wideThreads = wideThreads(type, threads);
+        final String format = commandLine.getOptionValue("f", "text");
+        if (!format.equals("text") && !format.equals("binary")) {
+            throw new ParseException("Output format is not correct");
+        }
+        final String outputPath = commandLine.getOptionValue("o", "-");
+        // Binary distances on the standard output must not be mixed with the status lines
+        final PrintStream status = format.equals("binary") && outputPath.equals("-") ? System.err : System.out;
+
+        final MetricsRecorder metrics = new MetricsRecorder();
+        if (commandLine.hasOption("out-of-core")) {
+            if (!distances.equals("int") || commandLine.hasOption("sources")
+                    || commandLine.hasOption("remap") || commandLine.hasOption("order")) {
+                throw new ParseException("Out-of-core solving needs int distances and a single source");
+            }
+            solveOutOfCore(commandLine, metrics, status);
+            writeMetrics(metrics, commandLine.getOptionValue("metrics"), status);
+            return;
+        }
+        final long loadStart = System.nanoTime();
+        switch (distances) {
+            case "long" -> {
+                final LongWeightedGraph graph = readLongGraph(commandLine);
+                metrics.graphLoaded(System.nanoTime() - loadStart);
+                try (Output output = openOutput(commandLine, BinaryDistanceWriter.Type.LONG,
+                        graph.getVerticesNumber(), null, null)) {
+                    solveLong(graph, toDense(commandLine.getOptionValue("S"), null), output, wideThreads, metrics,
+                            status);
+                }
+                writeMetrics(metrics, commandLine.getOptionValue("metrics"), status);
+                return;
+            }
+            case "double" -> {
+                final DoubleWeightedGraph graph = readDoubleGraph(commandLine);
+                metrics.graphLoaded(System.nanoTime() - loadStart);
+                try (Output output = openOutput(commandLine, BinaryDistanceWriter.Type.DOUBLE,
+                        graph.getVerticesNumber(), null, null)) {
+                    solveDouble(graph, toDense(commandLine.getOptionValue("S"), null), output, wideThreads, metrics,
+                            status);
+                }
+                writeMetrics(metrics, commandLine.getOptionValue("metrics"), status);
+                return;
+            }
+            case "int", "auto" -> {
+            }
+            default -> throw new ParseException("Distance type is not correct");
+        }
+        final AdjacencyListGraph loaded;
+        final VertexIdMap ids;
+        if (commandLine.hasOption("remap") && !BinaryGraphReader.isBinaryGraph(commandLine.getOptionValue("g"))) {
+            final RemappedGraph remapped = readRemappedGraph(commandLine);
+            loaded = remapped.getGraph();
+            ids = remapped.getIds();
+        } else {
+            loaded = readGraph(commandLine);
+            ids = null;
+        }
+        metrics.graphLoaded(System.nanoTime() - loadStart);
+
+        final AdjacencyListGraph graph;
+        final ReorderedGraph reordered;
+        if (order != null) {
+            final long transformStart = System.nanoTime();
+            reordered = ReorderedGraph.of(loaded, order);
+            graph = reordered.getGraph();
+            metrics.graphTransformed(System.nanoTime() - transformStart);
+        } else {
+            reordered = null;
+            graph = loaded;
+        }
+
+        if (distances.equals("auto") && !BellmanFordLong.fitsInt(graph)) {
+            if (commandLine.hasOption("sources")) {
+                throw new ParseException("Path lengths may overflow the int distances of --sources");
+            }
+            System.err.println("Path lengths may overflow int distances, using long distances");
+            final int source = toSolver(toDense(commandLine.getOptionValue("S"), ids), reordered);
+            try (Output output = openOutput(commandLine, BinaryDistanceWriter.Type.LONG, loaded.getVerticesNumber(),
+                    ids, reordered)) {
+                solveLong(LongWeightedGraph.of(graph), source, output, wideThreads(resolveType(type, graph), threads),
+                        metrics, status);
+            }
+            writeMetrics(metrics, commandLine.getOptionValue("metrics"), status);
+            return;
+        }
+
+        if (commandLine.hasOption("sources")) {
+            final int batch = Integer.parseInt(commandLine.getOptionValue("batch",
+                    String.valueOf(BellmanFordBatch.DEFAULT_BATCH_SIZE)));
+            final int[] sources = readSources(commandLine.getOptionValue("sources"), ids);
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = toSolver(sources[i], reordered);
+            }
+            try (Output output = openOutput(commandLine, BinaryDistanceWriter.Type.INT, loaded.getVerticesNumber(),
+                    ids, reordered)) {
+                solveMany(graph, sources, output, threads, batch, metrics, status);
+            }
+            writeMetrics(metrics, commandLine.getOptionValue("metrics"), status);
+            return;
+        }
+        final int source = toSolver(toDense(commandLine.getOptionValue("S"), ids), reordered);
+
+        final ShortestPathResult result;
+        final long elapsed;
+        try (Output output = openOutput(commandLine, BinaryDistanceWriter.Type.INT, loaded.getVerticesNumber(), ids,
+                reordered)) {
+            try (ShortestPathSolver solver = createSolver(resolveType(type, graph), threads, grain, delta)) {
+                long before = System.nanoTime();
+                result = solver.solve(graph, source, metrics);
+                long after = System.nanoTime();
+                elapsed = after - before;
+            }
+            metrics.solveCompleted(elapsed);
+            output.write(result.getSource(), result.getDistances());
+        }
+        status.println("Rounds: " + result.getRounds());
+
+        final String timeResult = "Elapsed time: " + elapsed / 1_000_000_000D;
+        status.println(timeResult);
+        writeMetrics(metrics, commandLine.getOptionValue("metrics"), status);
+    }
+
+    private static void writeMetrics(MetricsRecorder metrics, String path, PrintStream status) throws IOException {
+        if (path == null) {
+            return;
+        }
+        final String json = metrics.getMetrics().toJson();
+        if (path.equals("-")) {
+            status.println(json);
+        } else {
+            Files.writeString(Path.of(path), json);
+        }
+    }
+
+    /**
+     * Maps the binary graph file and its partition file, building the latter on first use,
+     * and solves with the edges left on disk.
+     */
+    private static void solveOutOfCore(CommandLine commandLine, MetricsRecorder metrics, PrintStream status)
+            throws IOException, ParseException {
+        final String graphPath = commandLine.getOptionValue("g");
+        if (!BinaryGraphReader.isBinaryGraph(graphPath)) {
+            throw new ParseException("Out-of-core solving needs a binary graph file");
+        }
+        final String partitionPath = commandLine.getOptionValue("out-of-core");
+        final long loadStart = System.nanoTime();
+        final MappedGraph mapped = new BinaryGraphReader().open(graphPath);
+        metrics.graphLoaded(System.nanoTime() - loadStart);
+        if (!Files.exists(Path.of(partitionPath))) {
+            final int blockEdges = Integer.parseInt(commandLine.getOptionValue("block-edges",
+                    String.valueOf(PartitionedGraphWriter.DEFAULT_BLOCK_EDGES)));
+            final long transformStart = System.nanoTime();
+            new PartitionedGraphWriter(blockEdges).write(mapped, partitionPath);
+            metrics.graphTransformed(System.nanoTime() - transformStart);
+        }
+        final PartitionedGraph graph = new PartitionedGraphReader().open(partitionPath);
+        if (graph.getVerticesNumber() != mapped.getVerticesNumber()
+                || graph.getEdgesNumber() != mapped.getEdgesNumber()) {
+            throw new ParseException("Partition file does not match the graph file");
+        }
+        final int source = toDense(commandLine.getOptionValue("S"), null);
+        if (source < 0 || source >= graph.getVerticesNumber()) {
+            throw new ParseException("Node " + source + " does not exist");
+        }
+
+        final ShortestPathResult result;
+        final long elapsed;
+        try (Output output = openOutput(commandLine, BinaryDistanceWriter.Type.INT, graph.getVerticesNumber(), null,
+                null)) {
+            try (BellmanFordOutOfCore solver = new BellmanFordOutOfCore()) {
+                long before = System.nanoTime();
+                result = solver.solve(graph, source, metrics);
+                long after = System.nanoTime();
+                elapsed = after - before;
+            }
+            metrics.solveCompleted(elapsed);
+            output.write(result.getSource(), result.getDistances());
+        }
+        status.println("Rounds: " + result.getRounds());
+
+        final String timeResult = "Elapsed time: " + elapsed / 1_000_000_000D;
+        status.println(timeResult);
+    }
+
+    private static void solveMany(AdjacencyListGraph graph, int[] sources, Output output, int threads, int batch,
+                                  MetricsRecorder metrics, PrintStream status) throws IOException {
+        final ShortestPathResult[] results;
+        final long elapsed;
+        try (BellmanFordBatch solver = new BellmanFordBatch(threads, batch)) {
+            long before = System.nanoTime();
+            results = solver.solveMany(graph, sources);
+            long after = System.nanoTime();
+            elapsed = after - before;
+        }
+        metrics.solveCompleted(elapsed);
+
+        for (ShortestPathResult result : results) {
+            output.write(result.getSource(), result.getDistances());
+        }
+
+        final String timeResult = "Elapsed time: " + elapsed / 1_000_000_000D;
+        status.println(timeResult);
+    }
+
+    private static void solveLong(LongWeightedGraph graph, int source, Output output, int threads,
+                                  MetricsRecorder metrics, PrintStream status) throws IOException {
+        final LongShortestPathResult result;
+        final long elapsed;
+        try (BellmanFordLong solver = new BellmanFordLong(threads)) {
+            long before = System.nanoTime();
+            result = solver.solve(graph, source, metrics);
+            long after = System.nanoTime();
+            elapsed = after - before;
+        }
+        metrics.solveCompleted(elapsed);
+
+        output.write(result.getSource(), result.getDistances());
+        status.println("Rounds: " + result.getRounds());
+
+        final String timeResult = "Elapsed time: " + elapsed / 1_000_000_000D;
+        status.println(timeResult);
+    }
+
+    private static void solveDouble(DoubleWeightedGraph graph, int source, Output output, int threads,
+                                    MetricsRecorder metrics, PrintStream status) throws IOException {
+        final DoubleShortestPathResult result;
+        final long elapsed;
+        try (BellmanFordDouble solver = new BellmanFordDouble(threads)) {
+            long before = System.nanoTime();
+            result = solver.solve(graph, source, metrics);
+            long after = System.nanoTime();
+            elapsed = after - before;
+        }
+        metrics.solveCompleted(elapsed);
+
+        output.write(result.getSource(), result.getDistances());
+        status.println("Rounds: " + result.getRounds());
+
+        final String timeResult = "Elapsed time: " + elapsed / 1_000_000_000D;
+        status.println(timeResult);
+    }
+
+    /**
+     * Opens the distance writer selected by -o and -f, with the --targets filter.
+     * @param type distance type of the binary format.
+     * @param vertices number of vertices of the loaded graph.
+     */
+    private static Output openOutput(CommandLine commandLine, BinaryDistanceWriter.Type type, int vertices,
+                                     VertexIdMap ids, ReorderedGraph reordered) throws IOException, ParseException {
+        final int[] targets = commandLine.hasOption("targets")
+                ? readTargets(commandLine.getOptionValue("targets"), ids, vertices) : null;
+        final String path = commandLine.getOptionValue("o", "-");
+        final boolean binary = commandLine.getOptionValue("f", "text").equals("binary");
+        // Without a selection or a renumbering the record of node i is the i-th one, its id need not be written
+        final boolean dense = targets == null && ids == null && reordered == null;
+        final DistanceWriter writer;
+        if (path.equals("-")) {
+            writer = binary ? new BinaryDistanceWriter(System.out, type, dense) : new TextDistanceWriter(System.out);
+        } else {
+            writer = binary ? new BinaryDistanceWriter(path, type, dense) : new TextDistanceWriter(path);
+        }
+        return new Output(writer, targets, ids, reordered);
+    }
+
+    /**
+     * Dense id of a node given on the command line.
+     * @param ids mapping of the external node ids, or {@code null} if the ids are dense already.
+     */
+    private static int toDense(String node, VertexIdMap ids) throws ParseException {
+        try {
+            if (ids == null) {
+                return Integer.parseInt(node);
+            }
+            final int dense = ids.get(Long.parseLong(node));
+            if (dense < 0) {
+                throw new ParseException("Node " + node + " does not exist");
+            }
+            return dense;
+        } catch (NumberFormatException e) {
+            throw new ParseException("Node id is not valid: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Id of a node in the graph given to the solver.
+     * @param reordered renumbering of the vertices, or {@code null}.
+     */
+    private static int toSolver(int node, ReorderedGraph reordered) throws ParseException {
+        if (reordered == null) {
+            return node;
+        }
+        if (node < 0 || node >= reordered.getGraph().getVerticesNumber()) {
+            throw new ParseException("Node " + node + " does not exist");
+        }
+        return reordered.toReordered(node);
+    }
+
+    private static int[] readSources(String path, VertexIdMap ids) throws IOException, ParseException {
+        final String content = Files.readString(Path.of(path)).strip();
+        if (content.isEmpty()) {
+            throw new ParseException("Sources file is empty");
+        }
+        final String[] nodes = content.split("\\s+");
+        final int[] sources = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            sources[i] = toDense(nodes[i], ids);
+        }
+        return sources;
+    }
+
+    /**
+     * @return dense ids of the target nodes, in file order.
+     */
+    private static int[] readTargets(String path, VertexIdMap ids, int vertices) throws IOException, ParseException {
+        final String content = Files.readString(Path.of(path)).strip();
+        if (content.isEmpty()) {
+            return new int[0];
+        }
+        final String[] nodes = content.split("\\s+");
+        final int[] targets = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            targets[i] = toDense(nodes[i], ids);
+            if (targets[i] < 0 || targets[i] >= vertices) {
+                throw new ParseException("Node " + nodes[i] + " does not exist");
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Type run for -t auto: delta-stepping if the graph has no negative weights, sequential Bellman-Ford otherwise.
+     */
+    private static String resolveType(String type, AdjacencyListGraph graph) {
+        if (!type.equals("auto")) {
+            return type;
+        }
+        return DeltaStepping.supports(graph) ? "delta" : "sequential";
+    }
+
+    /**
+     * Threads of the long and double solvers for the type: they have a sequential and a parallel engine, picked by
+     * the family of the type.
+     */
+    private static int wideThreads(String type, int threads) throws ParseException {
+        return switch (type) {
+            case "auto", "sequential", "spfa", "yen" -> 1;
+            case "parallel", "parallel-barrier", "parallel-push", "parallel-stealing", "spfa-parallel", "delta" ->
+                    threads;
+            default -> throw new ParseException("Type of Bellman-Ford algorithm is not correct");
+        };
+    }
+
+    private static ShortestPathSolver createSolver(String type, int threads, int grain, int delta)
+            throws ParseException {
+        return switch (type) {
+            case "sequential" -> new BellmanFordSequential();
+            case "parallel" -> new BellmanFordParallel(threads, BellmanFordParallel.Strategy.TASKS, grain);
+            case "parallel-barrier" -> new BellmanFordParallel(threads, BellmanFordParallel.Strategy.BARRIER, grain);
+            case "parallel-push" -> new BellmanFordParallel(threads, BellmanFordParallel.Strategy.PUSH, grain);
+            case "parallel-stealing" -> new BellmanFordParallel(threads, BellmanFordParallel.Strategy.WORK_STEALING,
+                    grain);
+            case "spfa" -> new SpfaSequential();
+            case "spfa-parallel" -> new SpfaParallel(threads);
+            case "delta" -> new DeltaStepping(threads, delta);
+            case "yen" -> new BellmanFordYen();
+            default -> throw new ParseException("Type of Bellman-Ford algorithm is not correct");
+        };
+    }
+
+    private static void convert(String[] args) throws IOException, ParseException {
+        final Option outputOption = Option.builder("o")
                 .required(true)
                 .hasArg(true)
-                .desc("Path to the graph file.")
-                .longOpt("graph")
+                .desc("Path of the binary graph file to write.")
+                .longOpt("output")
                 .build();
-        final Option sourceOption = Option.builder("S")
+        final Options options = graphOptions();
+        final CommandLineParser parser = new DefaultParser();
+
+        options.addOption(outputOption);
+
+        final CommandLine commandLine = parser.parse(options, args);
+
+        if (commandLine.hasOption("h")) {
+            HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("Bellman-Ford parallel algorithm app convert", "Argument description:", options, "",
+                    true);
+            return;
+        }
+
+        long before = System.nanoTime();
+        final AdjacencyListGraph graph = readGraph(commandLine);
+        new BinaryGraphWriter().write(graph, commandLine.getOptionValue("o"));
+        long after = System.nanoTime();
+
+        System.out.println("Converted " + graph.getVerticesNumber() + " vertices and " + graph.getEdgesNumber()
+                + " edges in " + (after - before) / 1_000_000_000D);
+    }
+
+    private static void generate(String[] args) throws IOException, ParseException {
+        final Option typeOption = Option.builder("t")
                 .required(true)
                 .hasArg(true)
-                .desc("Defines the source node of the graph.")
-                .longOpt("source")
+                .desc("Graph family (erdos-renyi/grid/rmat).")
+                .longOpt("type")
                 .build();
-        final Option weightedOption = Option.builder("w")
+        final Option verticesOption = Option.builder("v")
+                .required(true)
+                .hasArg(true)
+                .desc("Number of vertices.")
+                .longOpt("vertices")
+                .build();
+        final Option edgesOption = Option.builder("e")
                 .required(false)
                 .hasArg(true)
-                .desc("Defines if the graph file represents weighted graph. 1 - graph is weighted, 0 - graph is not weighted. 1 by default.")
-                .longOpt("weighted")
+                .desc("Expected number of edges, ignored by grid. 8 per vertex by default.")
+                .longOpt("edges")
                 .build();
-        final Option linesSkipOption = Option.builder("s")
+        final Option minWeightOption = Option.builder()
                 .required(false)
                 .hasArg(true)
-                .desc("Defines the number of lines to skip in the graph file.")
-                .longOpt("weighted")
+                .desc("Smallest edge weight. " + GraphGenerator.DEFAULT_MIN_WEIGHT + " by default.")
+                .longOpt("min-weight")
+                .build();
+        final Option maxWeightOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Largest edge weight. " + GraphGenerator.DEFAULT_MAX_WEIGHT + " by default.")
+                .longOpt("max-weight")
+                .build();
+        final Option seedOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Random seed. 42 by default.")
+                .longOpt("seed")
+                .build();
+        final Option negativeCycleOption = Option.builder()
+                .required(false)
+                .hasArg(false)
+                .desc("Plants a negative cycle reachable from node 0.")
+                .longOpt("negative-cycle")
+                .build();
+        final Option formatOption = Option.builder("f")
+                .required(false)
+                .hasArg(true)
+                .desc("Output format (text/binary). Default text.")
+                .longOpt("format")
+                .build();
+        final Option outputOption = Option.builder("o")
+                .required(true)
+                .hasArg(true)
+                .desc("Path of the graph file to write.")
+                .longOpt("output")
                 .build();
         final Option helpOption = Option.builder("h")
                 .required(false)
@@ -67,53 +785,330 @@ public class BellmanFordApplication {
         final CommandLineParser parser = new DefaultParser();
 
         options.addOption(typeOption);
-        options.addOption(graphOption);
-        options.addOption(weightedOption);
-        options.addOption(sourceOption);
-        options.addOption(linesSkipOption);
+        options.addOption(verticesOption);
+        options.addOption(edgesOption);
+        options.addOption(minWeightOption);
+        options.addOption(maxWeightOption);
+        options.addOption(seedOption);
+        options.addOption(negativeCycleOption);
+        options.addOption(formatOption);
+        options.addOption(outputOption);
         options.addOption(helpOption);
 
         final CommandLine commandLine = parser.parse(options, args);
 
         if (commandLine.hasOption("h")) {
             HelpFormatter formatter = new HelpFormatter();
-            formatter.printHelp("Bellman-Ford parallel algorithm app", "Argument description:", options, "", true);
+            formatter.printHelp("Bellman-Ford parallel algorithm app generate", "Argument description:", options, "",
+                    true);
+            return;
+        }
+
+        final GraphGenerator.Type type = switch (commandLine.getOptionValue("t")) {
+            case "erdos-renyi" -> GraphGenerator.Type.ERDOS_RENYI;
+            case "grid" -> GraphGenerator.Type.GRID;
+            case "rmat" -> GraphGenerator.Type.RMAT;
+            default -> throw new ParseException("Graph family is not correct");
+        };
+        final int vertices = Integer.parseInt(commandLine.getOptionValue("v"));
+        final long edges = Long.parseLong(commandLine.getOptionValue("e", String.valueOf(8L * vertices)));
+        final int minWeight = Integer.parseInt(commandLine.getOptionValue("min-weight",
+                String.valueOf(GraphGenerator.DEFAULT_MIN_WEIGHT)));
+        final int maxWeight = Integer.parseInt(commandLine.getOptionValue("max-weight",
+                String.valueOf(GraphGenerator.DEFAULT_MAX_WEIGHT)));
+        final long seed = Long.parseLong(commandLine.getOptionValue("seed", "42"));
+        final String output = commandLine.getOptionValue("o");
+
+        final GraphGenerator generator = new GraphGenerator(type, vertices, edges, minWeight, maxWeight, seed,
+                commandLine.hasOption("negative-cycle"));
+        long before = System.nanoTime();
+        switch (commandLine.getOptionValue("f", "text")) {
+            case "text" -> generator.writeText(output);
+            case "binary" -> generator.writeBinary(output);
+            default -> throw new ParseException("Output format is not correct");
+        }
+        long after = System.nanoTime();
+
+        System.out.println("Generated " + generator.getVerticesNumber() + " vertices in "
+                + (after - before) / 1_000_000_000D);
+    }
+
+    private static void serve(String[] args) throws IOException, ParseException {
+        final Option typeOption = Option.builder("t")
+                .required(false)
+                .hasArg(true)
+                .desc("Type of Bellman-Ford algorithm (auto/sequential/parallel/parallel-barrier/parallel-push/parallel-stealing/spfa/spfa-parallel/delta/yen). auto runs delta for graphs without negative weights and sequential otherwise. Default auto.")
+                .longOpt("type")
+                .build();
+        final Option deltaOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Bucket width of the delta type. Tuned from the weights by default.")
+                .longOpt("delta")
+                .build();
+        final Option threadsOption = Option.builder("n")
+                .required(false)
+                .hasArg(true)
+                .desc("Number of threads of the parallel algorithms. 10 by default.")
+                .longOpt("threads")
+                .build();
+        final Option grainOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Number of edges per task of the parallel algorithms. Tuned automatically by default.")
+                .longOpt("grain")
+                .build();
+        final Option hostOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Address to bind. localhost by default.")
+                .longOpt("host")
+                .build();
+        final Option portOption = Option.builder("p")
+                .required(false)
+                .hasArg(true)
+                .desc("Port to listen on. " + ShortestPathServer.DEFAULT_PORT + " by default.")
+                .longOpt("port")
+                .build();
+        final Option maxSolvesOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Largest number of concurrent solves. 2 by default.")
+                .longOpt("max-solves")
+                .build();
+        final Option cacheOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Memory budget of the cached results in MiB. 256 by default, 0 disables the cache.")
+                .longOpt("cache-mb")
+                .build();
+        final Option handlersOption = Option.builder()
+                .required(false)
+                .hasArg(true)
+                .desc("Number of threads serving HTTP requests. 16 by default.")
+                .longOpt("handlers")
+                .build();
+        final Options options = graphOptions();
+        final CommandLineParser parser = new DefaultParser();
+
+        options.addOption(typeOption);
+        options.addOption(threadsOption);
+        options.addOption(grainOption);
+        options.addOption(deltaOption);
+        options.addOption(hostOption);
+        options.addOption(portOption);
+        options.addOption(maxSolvesOption);
+        options.addOption(cacheOption);
+        options.addOption(handlersOption);
+
+        final CommandLine commandLine = parser.parse(options, args);
+
+        if (commandLine.hasOption("h")) {
+            HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("Bellman-Ford parallel algorithm app serve", "Argument description:", options, "",
+                    true);
             return;
         }
-        final String type = commandLine.getOptionValue("t", "sequential");
+
+        final String type = commandLine.getOptionValue("t", "auto");
+        final int threads = Integer.parseInt(commandLine.getOptionValue("n", "10"));
+        final int grain = Integer.parseInt(commandLine.getOptionValue("grain",
+                String.valueOf(BellmanFordParallel.AUTO_GRAIN_SIZE)));
+        final int delta = Integer.parseInt(commandLine.getOptionValue("delta",
+                String.valueOf(DeltaStepping.AUTO_DELTA)));
+        // Fails on an unknown type before the graph is loaded
+        createSolver(type.equals("auto") ? "delta" : type, threads, grain, delta).close();
+        final InetSocketAddress address = new InetSocketAddress(commandLine.getOptionValue("host", "localhost"),
+                Integer.parseInt(commandLine.getOptionValue("p", String.valueOf(ShortestPathServer.DEFAULT_PORT))));
+        final int maxSolves = Integer.parseInt(commandLine.getOptionValue("max-solves", "2"));
+        final long cacheBudget = Long.parseLong(commandLine.getOptionValue("cache-mb", "256")) << 20;
+        final int handlers = Integer.parseInt(commandLine.getOptionValue("handlers", "16"));
+
+        long before = System.nanoTime();
+        final AdjacencyListGraph graph = readGraph(commandLine);
+        long after = System.nanoTime();
+
+        final String solverType = resolveType(type, graph);
+        final ShortestPathServer server = new ShortestPathServer(graph, () -> {
+            try {
+                return createSolver(solverType, threads, grain, delta);
+            } catch (ParseException e) {
+                throw new IllegalStateException(e);
+            }
+        }, maxSolves, cacheBudget, address, handlers);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("Loaded " + graph.getVerticesNumber() + " vertices in " + (after - before) / 1_000_000_000D
+                + ", serving on http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    /**
+     * Options describing the graph file, shared by all commands.
+     */
+    private static Options graphOptions() {
+        final Option graphOption = Option.builder("g")
+                .required(true)
+                .hasArg(true)
+                .desc("Path to the graph file.")
+                .longOpt("graph")
+                .build();
+        final Option weightedOption = Option.builder("w")
+                .required(false)
+                .hasArg(true)
+                .desc("Defines if the graph file represents weighted graph. 1 - graph is weighted, 0 - graph is not weighted. 1 by default.")
+                .longOpt("weighted")
+                .build();
+        final Option linesSkipOption = Option.builder("s")
+                .required(false)
+                .hasArg(true)
+                .desc("Defines the number of lines to skip in the graph file.")
+                .longOpt("skip")
+                .build();
+        final Option readersOption = Option.builder("r")
+                .required(false)
+                .hasArg(true)
+                .desc("Number of threads used to parse the graph file. 1 by default.")
+                .longOpt("readers")
+                .build();
+        final Option helpOption = Option.builder("h")
+                .required(false)
+                .hasArg(false)
+                .desc("To ask to print the help.")
+                .longOpt("help")
+                .build();
+        final Options options = new Options();
+
+        options.addOption(graphOption);
+        options.addOption(weightedOption);
+        options.addOption(linesSkipOption);
+        options.addOption(readersOption);
+        options.addOption(helpOption);
+        return options;
+    }
+
+    private static AdjacencyListGraph readGraph(CommandLine commandLine) throws IOException, ParseException {
         final String graphPath = commandLine.getOptionValue("g");
-        final int source = Integer.parseInt(commandLine.getOptionValue("S"));
+        if (BinaryGraphReader.isBinaryGraph(graphPath)) {
+            return new BinaryGraphReader().read(graphPath);
+        }
+
         final int weighted = Integer.parseInt(commandLine.getOptionValue("w", "1"));
         final int skip = Integer.parseInt(commandLine.getOptionValue("s", "0"));
+        final int readers = Integer.parseInt(commandLine.getOptionValue("r", "1"));
 
-        final AdjacencyListGraph graph;
-        final GraphReader graphReader = new GraphReader();
+        final GraphReader graphReader = new GraphReader(readers);
         if (weighted == 1) {
-            graph = graphReader.readWeightedGraph(graphPath, skip);
+            return graphReader.readWeightedGraph(graphPath, skip);
         } else if (weighted == 0) {
-            graph = graphReader.readUnweightedGraph(graphPath, skip);
+            return graphReader.readUnweightedGraph(graphPath, skip);
         } else {
             throw new ParseException("Weighted indicator is not correct. Can be either 1 or 0.");
         }
+    }
 
-        final int[] result;
-        long before = System.nanoTime();
-        switch (type) {
-            case "sequential" -> {
-                final BellmanFordSequential sequential = new BellmanFordSequential();
-                result = sequential.solve(graph, source);
+    private static RemappedGraph readRemappedGraph(CommandLine commandLine) throws IOException, ParseException {
+        final int weighted = Integer.parseInt(commandLine.getOptionValue("w", "1"));
+        final int skip = Integer.parseInt(commandLine.getOptionValue("s", "0"));
+        final int readers = Integer.parseInt(commandLine.getOptionValue("r", "1"));
+        if (weighted != 0 && weighted != 1) {
+            throw new ParseException("Weighted indicator is not correct. Can be either 1 or 0.");
+        }
+        return new GraphReader(readers).readRemappedGraph(commandLine.getOptionValue("g"), skip, weighted == 1);
+    }
+
+    /**
+     * Reads the weights of a weighted text graph as 64-bit integers, other graphs are widened.
+     */
+    private static LongWeightedGraph readLongGraph(CommandLine commandLine) throws IOException, ParseException {
+        final String graphPath = commandLine.getOptionValue("g");
+        if (BinaryGraphReader.isBinaryGraph(graphPath) || !commandLine.getOptionValue("w", "1").equals("1")) {
+            return LongWeightedGraph.of(readGraph(commandLine));
+        }
+        final int skip = Integer.parseInt(commandLine.getOptionValue("s", "0"));
+        final int readers = Integer.parseInt(commandLine.getOptionValue("r", "1"));
+        return new GraphReader(readers).readLongWeightedGraph(graphPath, skip);
+    }
+
+    /**
+     * Reads the weights of a weighted text graph as decimals, other graphs are widened.
+     */
+    private static DoubleWeightedGraph readDoubleGraph(CommandLine commandLine) throws IOException, ParseException {
+        final String graphPath = commandLine.getOptionValue("g");
+        if (BinaryGraphReader.isBinaryGraph(graphPath) || !commandLine.getOptionValue("w", "1").equals("1")) {
+            return DoubleWeightedGraph.of(readGraph(commandLine));
+        }
+        final int skip = Integer.parseInt(commandLine.getOptionValue("s", "0"));
+        final int readers = Integer.parseInt(commandLine.getOptionValue("r", "1"));
+        return new GraphReader(readers).readDoubleWeightedGraph(graphPath, skip);
+    }
+
+    /**
+     * Writes results of the solver graph with the node ids of the graph file: the renumbering of --order
+     * is undone per node and --remap ids are written as external ids, so no distance array is copied.
+     */
+    private static final class Output implements Closeable {
+
+        private final DistanceWriter writer;
+
+        // Dense ids of the written nodes, null for all nodes
+        private final int[] targets;
+
+        private final VertexIdMap ids;
+
+        private final ReorderedGraph reordered;
+
+        private Output(DistanceWriter writer, int[] targets, VertexIdMap ids, ReorderedGraph reordered) {
+            this.writer = writer;
+            this.targets = targets;
+            this.ids = ids;
+            this.reordered = reordered;
+        }
+
+        void write(int source, int[] distances) throws IOException {
+            final int count = begin(source, distances.length);
+            for (int i = 0; i < count; i++) {
+                final int node = targets == null ? i : targets[i];
+                writer.write(external(node), distances[position(node)]);
             }
-            case "parallel" -> {
-                final BellmanFordParallel parallel = new BellmanFordParallel(10);
-                result = parallel.solve(graph, source);
+        }
+
+        void write(int source, long[] distances) throws IOException {
+            final int count = begin(source, distances.length);
+            for (int i = 0; i < count; i++) {
+                final int node = targets == null ? i : targets[i];
+                writer.write(external(node), distances[position(node)]);
+            }
+        }
+
+        void write(int source, double[] distances) throws IOException {
+            final int count = begin(source, distances.length);
+            for (int i = 0; i < count; i++) {
+                final int node = targets == null ? i : targets[i];
+                writer.write(external(node), distances[position(node)]);
             }
-            default -> throw new ParseException("Type of Bellman-Ford algorithm is not correct");
         }
-        long after = System.nanoTime();
 
-        System.out.println(Arrays.toString(result));
+        /**
+         * @param source source in the solver graph.
+         * @return number of nodes to write.
+         */
+        private int begin(int source, int vertices) throws IOException {
+            final int count = targets == null ? vertices : targets.length;
+            writer.begin(external(reordered == null ? source : reordered.toOriginal(source)), count);
+            return count;
+        }
 
-        final String timeResult = "Elapsed time: " + (after - before) / 1_000_000_000D;
-        System.out.println(timeResult);
+        private int position(int node) {
+            return reordered == null ? node : reordered.toReordered(node);
+        }
+
+        private long external(int node) {
+            return ids == null ? node : ids.toExternal(node);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
     }
 }
@@ -1,56 +1,215 @@
 package com.kpi.multithreading.bellman_ford_parallel.model;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Stream;
 
+/**
+ * Directed weighted graph stored in compressed sparse row (CSR) form.
+ * Out-edges of vertex {@code u} occupy the index range {@code [offsets[u], offsets[u + 1])}
+ * of the {@code targets} and {@code weights} arrays, so edge {@code i} is addressed by a plain int index
+ * and the solvers can scan the arrays without allocating per-edge objects.
+ */
 public class AdjacencyListGraph {
 
-    private final Edge[] adjacencyList;
+    private final int verticesNumber;
+
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    private final int[] weights;
+
+    private volatile ReversedGraph reversed;
 
     public AdjacencyListGraph(List<List<Integer>> adjacencyList) {
         if (adjacencyList.isEmpty() || adjacencyList.get(0).isEmpty()) {
             throw new IllegalArgumentException();
         }
-        adjacencyList.sort(Comparator.comparingInt(entry -> entry.get(0)));
-        final Edge[] edges = new Edge[adjacencyList.size()];
-        for (int i = 0; i < adjacencyList.size(); i++) {
-            edges[i] = new Edge(adjacencyList.get(i).get(0),
-                    adjacencyList.get(i).get(1),
-                    adjacencyList.get(i).get(2));
+        final int edges = adjacencyList.size();
+        final int[] sources = new int[edges];
+        final int[] destinations = new int[edges];
+        final int[] prices = new int[edges];
+        for (int i = 0; i < edges; i++) {
+            final List<Integer> edge = adjacencyList.get(i);
+            sources[i] = edge.get(0);
+            destinations[i] = edge.get(1);
+            prices[i] = edge.get(2);
+        }
+        final int vertices = countVertices(sources, destinations, edges);
+        this.verticesNumber = vertices;
+        this.offsets = new int[vertices + 1];
+        this.targets = new int[edges];
+        this.weights = new int[edges];
+        fill(sources, destinations, prices, edges, vertices, offsets, targets, weights);
+    }
+
+    /**
+     * Builds the graph from parallel edge arrays. Only the first {@code edges} entries are used,
+     * so oversized growable buffers can be passed as is.
+     * @param sources source node of every edge.
+     * @param destinations destination node of every edge.
+     * @param prices weight of every edge.
+     * @param edges number of edges.
+     */
+    public AdjacencyListGraph(int[] sources, int[] destinations, int[] prices, int edges) {
+        if (edges <= 0) {
+            throw new IllegalArgumentException();
         }
-        this.adjacencyList = edges;
+        final int vertices = countVertices(sources, destinations, edges);
+        this.verticesNumber = vertices;
+        this.offsets = new int[vertices + 1];
+        this.targets = new int[edges];
+        this.weights = new int[edges];
+        fill(sources, destinations, prices, edges, vertices, offsets, targets, weights);
     }
 
+    /**
+     * Wraps already built CSR arrays without copying them.
+     * @param offsets row offsets, {@code verticesNumber + 1} entries.
+     * @param targets destination node of every edge, grouped by source node.
+     * @param weights weight of every edge, aligned with {@code targets}.
+     */
+    public AdjacencyListGraph(int[] offsets, int[] targets, int[] weights) {
+        if (offsets.length < 2 || targets.length != weights.length || offsets[offsets.length - 1] != targets.length) {
+            throw new IllegalArgumentException("CSR arrays are not consistent");
+        }
+        this.verticesNumber = offsets.length - 1;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Boxed view of the edge, kept for convenience. Hot loops should use
+     * {@link #getOffsets()}, {@link #getTargets()} and {@link #getWeights()} instead.
+     * @param i index of the edge.
+     */
     public Edge getEdge(int i) {
-        return adjacencyList[i];
+        return new Edge(getSource(i), targets[i], weights[i]);
+    }
+
+    /**
+     * Finds the source node of the edge by binary search over the row offsets.
+     * @param i index of the edge.
+     */
+    public int getSource(int i) {
+        if (i < 0 || i >= targets.length) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        int low = 0;
+        int high = verticesNumber - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= i) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public int getTarget(int i) {
+        return targets[i];
+    }
+
+    public int getWeight(int i) {
+        return weights[i];
     }
 
+    /**
+     * Number of vertex slots, i.e. the largest node id plus one.
+     */
     public int getVerticesNumber() {
-        return (int) Arrays.stream(adjacencyList)
-                .flatMap(edge -> Stream.of(edge.nodeA(), edge.nodeB()))
-                .distinct()
-                .count();
+        return verticesNumber;
     }
 
     public int getEdgesNumber() {
-        return adjacencyList.length;
+        return targets.length;
+    }
+
+    public int getOutDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
     }
 
     public List<Edge> getNeighbours(int source) {
-        final Edge target = new Edge(source, -1, -1);
-        int neighbour = Arrays.binarySearch(adjacencyList, target, Comparator.comparingInt(Edge::nodeA));
-        if (neighbour < 0) {
+        if (source < 0 || source >= verticesNumber) {
             throw new IllegalArgumentException("Node " + source + " does not exist");
         }
-        final List<Edge> neighbours = new ArrayList<>();
-        Edge neightbourEdge;
-        while ((neightbourEdge = adjacencyList[neighbour++]).nodeA() == source) {
-            neighbours.add(neightbourEdge);
+        final List<Edge> neighbours = new ArrayList<>(getOutDegree(source));
+        for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+            neighbours.add(new Edge(source, targets[i], weights[i]));
         }
 
         return neighbours;
     }
+
+    /**
+     * Row offsets of the CSR layout. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Destination node of every edge. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Weight of every edge. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Returns the by-destination CSR view of the graph. The view is built on first use and cached.
+     */
+    public ReversedGraph getReversed() {
+        ReversedGraph result = reversed;
+        if (result == null) {
+            synchronized (this) {
+                result = reversed;
+                if (result == null) {
+                    result = new ReversedGraph(this);
+                    reversed = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int countVertices(int[] sources, int[] destinations, int edges) {
+        int max = -1;
+        for (int i = 0; i < edges; i++) {
+            if (sources[i] < 0 || destinations[i] < 0) {
+                throw new IllegalArgumentException("Node ids must be non-negative");
+            }
+            max = Math.max(max, Math.max(sources[i], destinations[i]));
+        }
+        return max + 1;
+    }
+
+    /**
+     * Counting sort of the edges by source node. Edges of the same source keep their input order.
+     */
+    private static void fill(int[] sources, int[] destinations, int[] prices, int edges, int vertices,
+                             int[] offsets, int[] targets, int[] weights) {
+        for (int i = 0; i < edges; i++) {
+            offsets[sources[i] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        final int[] position = new int[vertices];
+        System.arraycopy(offsets, 0, position, 0, vertices);
+        for (int i = 0; i < edges; i++) {
+            final int slot = position[sources[i]]++;
+            targets[slot] = destinations[i];
+            weights[slot] = prices[i];
+        }
+    }
 }
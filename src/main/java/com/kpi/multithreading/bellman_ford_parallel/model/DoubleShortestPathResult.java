@@ -0,0 +1,45 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * Result of a single-source shortest path solve with real-valued distances.
+ */
+public class DoubleShortestPathResult {
+
+    /**
+     * Distance of the unreachable nodes.
+     */
+    public static final double INFINITY = Double.POSITIVE_INFINITY;
+
+    private final int source;
+
+    private final double[] distances;
+
+    private final int rounds;
+
+    /**
+     * @param source source node of the solve.
+     * @param distances distance of every node, {@link #INFINITY} for unreachable nodes.
+     * @param rounds number of relaxation rounds actually executed.
+     */
+    public DoubleShortestPathResult(int source, double[] distances, int rounds) {
+        this.source = source;
+        this.distances = distances;
+        this.rounds = rounds;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public double[] getDistances() {
+        return distances;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public boolean isReachable(int vertex) {
+        return distances[vertex] != INFINITY;
+    }
+}
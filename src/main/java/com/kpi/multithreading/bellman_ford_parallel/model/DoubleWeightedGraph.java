@@ -0,0 +1,109 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * CSR graph with real-valued weights, the counterpart of {@link AdjacencyListGraph}
+ * for fractional weights.
+ */
+public class DoubleWeightedGraph {
+
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    private final double[] weights;
+
+    private volatile DoubleWeightedGraph reversed;
+
+    /**
+     * Wraps already built CSR arrays without copying them.
+     * @param offsets row offsets, {@code verticesNumber + 1} entries.
+     * @param targets destination node of every edge, grouped by source node.
+     * @param weights weight of every edge, aligned with {@code targets}.
+     */
+    public DoubleWeightedGraph(int[] offsets, int[] targets, double[] weights) {
+        if (offsets.length < 2 || targets.length != weights.length || offsets[offsets.length - 1] != targets.length) {
+            throw new IllegalArgumentException("CSR arrays are not consistent");
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Widens the weights of the graph, sharing its structure arrays.
+     */
+    public static DoubleWeightedGraph of(AdjacencyListGraph graph) {
+        final int[] narrow = graph.getWeights();
+        final double[] weights = new double[narrow.length];
+        for (int i = 0; i < narrow.length; i++) {
+            weights[i] = narrow[i];
+        }
+        return new DoubleWeightedGraph(graph.getOffsets(), graph.getTargets(), weights);
+    }
+
+    public int getVerticesNumber() {
+        return offsets.length - 1;
+    }
+
+    public int getEdgesNumber() {
+        return targets.length;
+    }
+
+    /**
+     * Row offsets of the CSR layout. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Destination node of every edge. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Weight of every edge. The array is shared, not copied, and must not be modified.
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Returns the graph with every edge reversed, i.e. the in-edges by destination node,
+     * where the targets are the source nodes. It is built on first use and cached.
+     */
+    public DoubleWeightedGraph getReversed() {
+        DoubleWeightedGraph result = reversed;
+        if (result == null) {
+            synchronized (this) {
+                result = reversed;
+                if (result == null) {
+                    final int vertices = getVerticesNumber();
+                    final int[] reversedOffsets = new int[vertices + 1];
+                    final int[] sources = new int[targets.length];
+                    final double[] reversedWeights = new double[targets.length];
+                    for (int target : targets) {
+                        reversedOffsets[target + 1]++;
+                    }
+                    for (int v = 0; v < vertices; v++) {
+                        reversedOffsets[v + 1] += reversedOffsets[v];
+                    }
+                    final int[] position = new int[vertices];
+                    System.arraycopy(reversedOffsets, 0, position, 0, vertices);
+                    for (int u = 0; u < vertices; u++) {
+                        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                            final int slot = position[targets[i]]++;
+                            sources[slot] = u;
+                            reversedWeights[slot] = weights[i];
+                        }
+                    }
+                    result = new DoubleWeightedGraph(reversedOffsets, sources, reversedWeights);
+                    reversed = result;
+                }
+            }
+        }
+        return result;
+    }
+}
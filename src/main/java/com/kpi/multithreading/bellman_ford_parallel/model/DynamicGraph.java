@@ -0,0 +1,289 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import java.util.Arrays;
+
+/**
+ * Mutable graph on top of an {@link AdjacencyListGraph}. The base CSR keeps its structure and only its weights
+ * change, while inserted edges are kept in per-vertex linked lists threaded through primitive arrays.
+ * Every edge has an id: base edges keep their CSR index, inserted edges are numbered from
+ * {@code baseEdgesNumber} on. The number of vertices is fixed.
+ */
+public class DynamicGraph {
+
+    private static final int NONE = -1;
+
+    private final int vertices;
+
+    private final int[] offsets;
+
+    private final int[] targets;
+
+    private final int[] weights;
+
+    private final int[] inOffsets;
+
+    private final int[] inSources;
+
+    private final int[] inEdges;
+
+    private final int[] outHeads;
+
+    private final int[] inHeads;
+
+    private int[] insertedSources = new int[16];
+
+    private int[] insertedTargets = new int[16];
+
+    private int[] insertedWeights = new int[16];
+
+    private int[] outNext = new int[16];
+
+    private int[] inNext = new int[16];
+
+    private int inserted;
+
+    /**
+     * Copies the weights of the base graph, its structure arrays are shared.
+     */
+    public DynamicGraph(AdjacencyListGraph graph) {
+        this.vertices = graph.getVerticesNumber();
+        this.offsets = graph.getOffsets();
+        this.targets = graph.getTargets();
+        this.weights = graph.getWeights().clone();
+        final int edges = graph.getEdgesNumber();
+
+        // In-edges by destination, holding the id of the forward edge so weight updates stay visible
+        this.inOffsets = new int[vertices + 1];
+        this.inSources = new int[edges];
+        this.inEdges = new int[edges];
+        for (int i = 0; i < edges; i++) {
+            inOffsets[targets[i] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        final int[] position = Arrays.copyOf(inOffsets, vertices);
+        for (int u = 0; u < vertices; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                final int slot = position[targets[i]]++;
+                inSources[slot] = u;
+                inEdges[slot] = i;
+            }
+        }
+
+        this.outHeads = new int[vertices];
+        this.inHeads = new int[vertices];
+        Arrays.fill(outHeads, NONE);
+        Arrays.fill(inHeads, NONE);
+    }
+
+    public int getVerticesNumber() {
+        return vertices;
+    }
+
+    public int getEdgesNumber() {
+        return targets.length + inserted;
+    }
+
+    public int getBaseEdgesNumber() {
+        return targets.length;
+    }
+
+    /**
+     * Inserts a new edge, even if the graph already has an edge between the same nodes.
+     * @return id of the new edge.
+     */
+    public int addEdge(int source, int target, int weight) {
+        checkNode(source);
+        checkNode(target);
+        if (inserted == insertedSources.length) {
+            final int capacity = inserted + (inserted >> 1);
+            insertedSources = Arrays.copyOf(insertedSources, capacity);
+            insertedTargets = Arrays.copyOf(insertedTargets, capacity);
+            insertedWeights = Arrays.copyOf(insertedWeights, capacity);
+            outNext = Arrays.copyOf(outNext, capacity);
+            inNext = Arrays.copyOf(inNext, capacity);
+        }
+        final int k = inserted++;
+        insertedSources[k] = source;
+        insertedTargets[k] = target;
+        insertedWeights[k] = weight;
+        outNext[k] = outHeads[source];
+        outHeads[source] = targets.length + k;
+        inNext[k] = inHeads[target];
+        inHeads[target] = targets.length + k;
+        return targets.length + k;
+    }
+
+    /**
+     * @return id of the first edge from {@code source} to {@code target}, or {@code -1} if there is none.
+     */
+    public int findEdge(int source, int target) {
+        checkNode(source);
+        checkNode(target);
+        for (int i = offsets[source]; i < offsets[source + 1]; i++) {
+            if (targets[i] == target) {
+                return i;
+            }
+        }
+        for (int e = outHeads[source]; e != NONE; e = getNextInsertedOut(e)) {
+            if (getTarget(e) == target) {
+                return e;
+            }
+        }
+        return NONE;
+    }
+
+    public void setWeight(int edge, int weight) {
+        if (edge < targets.length) {
+            weights[edge] = weight;
+        } else {
+            insertedWeights[checkInserted(edge)] = weight;
+        }
+    }
+
+    /**
+     * Source node of the edge. A binary search over the row offsets for the base edges.
+     */
+    public int getSource(int edge) {
+        if (edge >= targets.length) {
+            return insertedSources[checkInserted(edge)];
+        }
+        int low = 0;
+        int high = vertices - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= edge) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public int getTarget(int edge) {
+        return edge < targets.length ? targets[edge] : insertedTargets[checkInserted(edge)];
+    }
+
+    public int getWeight(int edge) {
+        return edge < targets.length ? weights[edge] : insertedWeights[checkInserted(edge)];
+    }
+
+    /**
+     * Row offsets of the base out-edges. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Destination node of every base edge. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Current weight of every base edge. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Row offsets of the base in-edges by destination node. The array is shared and must not be modified.
+     */
+    public int[] getInOffsets() {
+        return inOffsets;
+    }
+
+    /**
+     * Source node of every base in-edge. The array is shared and must not be modified.
+     */
+    public int[] getInSources() {
+        return inSources;
+    }
+
+    /**
+     * Id of every base in-edge, an index into {@link #getWeights()}. The array is shared and must not be modified.
+     */
+    public int[] getInEdges() {
+        return inEdges;
+    }
+
+    /**
+     * @return id of the last edge inserted from {@code source}, or {@code -1}.
+     */
+    public int getInsertedOut(int source) {
+        return outHeads[source];
+    }
+
+    /**
+     * @return id of the previous edge inserted from the same source, or {@code -1}.
+     */
+    public int getNextInsertedOut(int edge) {
+        return outNext[checkInserted(edge)];
+    }
+
+    /**
+     * @return id of the last edge inserted into {@code target}, or {@code -1}.
+     */
+    public int getInsertedIn(int target) {
+        return inHeads[target];
+    }
+
+    /**
+     * @return id of the previous edge inserted into the same target, or {@code -1}.
+     */
+    public int getNextInsertedIn(int edge) {
+        return inNext[checkInserted(edge)];
+    }
+
+    /**
+     * Compacts the base and the inserted edges into a new static graph, with the edges in id order
+     * within every source node.
+     */
+    public AdjacencyListGraph toAdjacencyListGraph() {
+        final int edges = getEdgesNumber();
+        final int[] compactOffsets = new int[vertices + 1];
+        for (int u = 0; u < vertices; u++) {
+            compactOffsets[u + 1] = offsets[u + 1] - offsets[u];
+        }
+        for (int k = 0; k < inserted; k++) {
+            compactOffsets[insertedSources[k] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            compactOffsets[v + 1] += compactOffsets[v];
+        }
+        final int[] compactTargets = new int[edges];
+        final int[] compactWeights = new int[edges];
+        final int[] position = Arrays.copyOf(compactOffsets, vertices);
+        for (int u = 0; u < vertices; u++) {
+            final int degree = offsets[u + 1] - offsets[u];
+            System.arraycopy(targets, offsets[u], compactTargets, position[u], degree);
+            System.arraycopy(weights, offsets[u], compactWeights, position[u], degree);
+            position[u] += degree;
+        }
+        for (int k = 0; k < inserted; k++) {
+            final int slot = position[insertedSources[k]]++;
+            compactTargets[slot] = insertedTargets[k];
+            compactWeights[slot] = insertedWeights[k];
+        }
+        return new AdjacencyListGraph(compactOffsets, compactTargets, compactWeights);
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= vertices) {
+            throw new IllegalArgumentException("Node " + node + " does not exist");
+        }
+    }
+
+    private int checkInserted(int edge) {
+        final int k = edge - targets.length;
+        if (k < 0 || k >= inserted) {
+            throw new IndexOutOfBoundsException(edge);
+        }
+        return k;
+    }
+}
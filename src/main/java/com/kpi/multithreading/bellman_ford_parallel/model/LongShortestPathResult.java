@@ -0,0 +1,45 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * Result of a single-source shortest path solve with 64-bit distances.
+ */
+public class LongShortestPathResult {
+
+    /**
+     * Distance of the unreachable nodes.
+     */
+    public static final long INFINITY = Long.MAX_VALUE;
+
+    private final int source;
+
+    private final long[] distances;
+
+    private final int rounds;
+
+    /**
+     * @param source source node of the solve.
+     * @param distances distance of every node, {@link #INFINITY} for unreachable nodes.
+     * @param rounds number of relaxation rounds actually executed.
+     */
+    public LongShortestPathResult(int source, long[] distances, int rounds) {
+        this.source = source;
+        this.distances = distances;
+        this.rounds = rounds;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public long[] getDistances() {
+        return distances;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public boolean isReachable(int vertex) {
+        return distances[vertex] != INFINITY;
+    }
+}
@@ -0,0 +1,63 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * CSR graph served straight from a memory-mapped binary graph file, without copying the arrays to the heap.
+ * The layout of the arrays is the same as the arrays of {@link AdjacencyListGraph}.
+ */
+public class MappedGraph {
+
+    private final int verticesNumber;
+
+    private final int edgesNumber;
+
+    private final MappedIntArray offsets;
+
+    private final MappedIntArray targets;
+
+    private final MappedIntArray weights;
+
+    public MappedGraph(MappedIntArray offsets, MappedIntArray targets, MappedIntArray weights) {
+        if (targets.length() != weights.length() || targets.length() > Integer.MAX_VALUE - 8
+                || offsets.get(offsets.length() - 1) != targets.length()) {
+            throw new IllegalArgumentException("CSR arrays are not consistent");
+        }
+        this.verticesNumber = (int) offsets.length() - 1;
+        this.edgesNumber = (int) targets.length();
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    public int getVerticesNumber() {
+        return verticesNumber;
+    }
+
+    public int getEdgesNumber() {
+        return edgesNumber;
+    }
+
+    public MappedIntArray getOffsets() {
+        return offsets;
+    }
+
+    public MappedIntArray getTargets() {
+        return targets;
+    }
+
+    public MappedIntArray getWeights() {
+        return weights;
+    }
+
+    /**
+     * Copies the arrays to the heap with one bulk transfer per mapped window.
+     */
+    public AdjacencyListGraph toAdjacencyListGraph() {
+        final int[] offsetsArray = new int[verticesNumber + 1];
+        final int[] targetsArray = new int[edgesNumber];
+        final int[] weightsArray = new int[edgesNumber];
+        offsets.copyTo(offsetsArray);
+        targets.copyTo(targetsArray);
+        weights.copyTo(weightsArray);
+        return new AdjacencyListGraph(offsetsArray, targetsArray, weightsArray);
+    }
+}
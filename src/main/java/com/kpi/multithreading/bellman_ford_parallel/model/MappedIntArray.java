@@ -0,0 +1,76 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import java.nio.IntBuffer;
+
+/**
+ * Int array stored in a memory-mapped file. A single mapping cannot exceed 2 GiB, so the array is split into
+ * windows of {@link #WINDOW_SIZE} ints, each mapped on its own, and indexed with a {@code long}.
+ */
+public class MappedIntArray {
+
+    /**
+     * Number of ints of every window but the last one, 1 GiB.
+     */
+    public static final int WINDOW_SIZE = 1 << 28;
+
+    private static final int WINDOW_SHIFT = 28;
+
+    private final IntBuffer[] windows;
+
+    private final long length;
+
+    /**
+     * @param windows consecutive parts of the array, all but the last one of {@link #WINDOW_SIZE} ints.
+     */
+    public MappedIntArray(IntBuffer[] windows) {
+        long total = 0;
+        for (int w = 0; w < windows.length; w++) {
+            if (w < windows.length - 1 && windows[w].limit() != WINDOW_SIZE) {
+                throw new IllegalArgumentException("Windows must be of " + WINDOW_SIZE + " ints");
+            }
+            total += windows[w].limit();
+        }
+        this.windows = windows;
+        this.length = total;
+    }
+
+    /**
+     * Number of windows needed for an array of {@code length} ints.
+     */
+    public static int windowsOf(long length) {
+        return (int) ((length + WINDOW_SIZE - 1) >>> WINDOW_SHIFT);
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public int get(long index) {
+        return windows[(int) (index >>> WINDOW_SHIFT)].get((int) (index & (WINDOW_SIZE - 1)));
+    }
+
+    public int getWindowsNumber() {
+        return windows.length;
+    }
+
+    /**
+     * Window {@code w}, holding the elements from {@code w * WINDOW_SIZE} on.
+     */
+    public IntBuffer getWindow(int w) {
+        return windows[w].duplicate();
+    }
+
+    /**
+     * Copies the whole array with one bulk transfer per window.
+     * @param target array of at least {@link #length()} ints.
+     */
+    public void copyTo(int[] target) {
+        int position = 0;
+        for (IntBuffer window : windows) {
+            final IntBuffer source = window.duplicate();
+            final int count = source.remaining();
+            source.get(target, position, count);
+            position += count;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * In-edges of a graph split into blocks of consecutive destinations, each served from its own memory-mapped
+ * region of a partition file. Only the block being relaxed needs to be resident, so the edges may be many times
+ * larger than the heap and the RAM.
+ */
+public class PartitionedGraph {
+
+    private final int verticesNumber;
+
+    private final long edgesNumber;
+
+    private final Block[] blocks;
+
+    /**
+     * @param blocks blocks in destination order, covering all vertices.
+     */
+    public PartitionedGraph(int verticesNumber, long edgesNumber, Block[] blocks) {
+        int next = 0;
+        long edges = 0;
+        for (Block block : blocks) {
+            if (block.getBegin() != next) {
+                throw new IllegalArgumentException("Blocks do not cover the vertices in order");
+            }
+            next = block.getEnd();
+            edges += block.getEdgesNumber();
+        }
+        if (next != verticesNumber || edges != edgesNumber) {
+            throw new IllegalArgumentException("Blocks do not match the graph size");
+        }
+        this.verticesNumber = verticesNumber;
+        this.edgesNumber = edgesNumber;
+        this.blocks = blocks;
+    }
+
+    public int getVerticesNumber() {
+        return verticesNumber;
+    }
+
+    public long getEdgesNumber() {
+        return edgesNumber;
+    }
+
+    public int getBlocksNumber() {
+        return blocks.length;
+    }
+
+    public Block getBlock(int block) {
+        return blocks[block];
+    }
+
+    /**
+     * In-edges of the destinations {@code begin..end-1} in CSR form, the offsets are relative to the block.
+     */
+    public static class Block {
+
+        private final int begin;
+
+        private final int end;
+
+        private final MappedByteBuffer region;
+
+        private final IntBuffer offsets;
+
+        private final IntBuffer sources;
+
+        private final IntBuffer weights;
+
+        /**
+         * @param region mapped block with the offsets, the sources and the weights, in that order.
+         */
+        public Block(int begin, int end, MappedByteBuffer region) {
+            this.begin = begin;
+            this.end = end;
+            this.region = region;
+            final int vertices = end - begin;
+            final IntBuffer ints = region.asIntBuffer();
+            this.offsets = ints.slice(0, vertices + 1);
+            final int edges = offsets.get(vertices);
+            if (edges < 0 || ints.limit() < vertices + 1 + 2 * edges) {
+                throw new IllegalArgumentException("Block is not valid");
+            }
+            this.sources = ints.slice(vertices + 1, edges);
+            this.weights = ints.slice(vertices + 1 + edges, edges);
+        }
+
+        public int getBegin() {
+            return begin;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public int getEdgesNumber() {
+            return sources.limit();
+        }
+
+        public IntBuffer getOffsets() {
+            return offsets.duplicate();
+        }
+
+        public IntBuffer getSources() {
+            return sources.duplicate();
+        }
+
+        public IntBuffer getWeights() {
+            return weights.duplicate();
+        }
+
+        /**
+         * Reads the whole block into the page cache, so the next accesses do not wait for the disk.
+         */
+        public void load() {
+            region.load();
+        }
+    }
+}
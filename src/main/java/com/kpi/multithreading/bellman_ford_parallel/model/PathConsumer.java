@@ -0,0 +1,16 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * Receives paths streamed by {@link ShortestPathTree#forEachPath(int[], PathConsumer)}.
+ */
+@FunctionalInterface
+public interface PathConsumer {
+
+    /**
+     * @param target target node of the path.
+     * @param path nodes from the source to the target in {@code [0, length)}. The buffer is reused
+     *             for the next path, so it must be copied to be kept.
+     * @param length number of nodes, zero if the target is unreachable.
+     */
+    void accept(int target, int[] path, int length);
+}
@@ -0,0 +1,43 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * Graph whose node ids were compacted at load time, together with the mapping back to the external ids.
+ * The solvers work on the dense graph, sources and results are translated at the boundary.
+ */
+public class RemappedGraph {
+
+    private final AdjacencyListGraph graph;
+
+    private final VertexIdMap ids;
+
+    /**
+     * @param graph graph with the dense ids.
+     * @param ids mapping between the external and the dense ids, covering every node of the graph.
+     */
+    public RemappedGraph(AdjacencyListGraph graph, VertexIdMap ids) {
+        if (graph.getVerticesNumber() != ids.size()) {
+            throw new IllegalArgumentException("Vertex id mapping does not match the graph");
+        }
+        this.graph = graph;
+        this.ids = ids;
+    }
+
+    public AdjacencyListGraph getGraph() {
+        return graph;
+    }
+
+    public VertexIdMap getIds() {
+        return ids;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the graph has no node with the external id.
+     */
+    public int toDense(long id) {
+        return ids.toDense(id);
+    }
+
+    public long toExternal(int dense) {
+        return ids.toExternal(dense);
+    }
+}
@@ -0,0 +1,233 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import java.util.Arrays;
+
+/**
+ * Copy of a graph with its vertices renumbered, so that vertices which are connected get close ids
+ * and the relaxation touches nearby entries of the distance array. The rows of the new CSR are sorted
+ * by target. Sources and results are translated between the original and the new ids at the boundary.
+ */
+public class ReorderedGraph {
+
+    /**
+     * Vertex orderings. All of them treat the edges as undirected.
+     */
+    public enum Order {
+        /**
+         * Breadth-first order, started from the lowest unvisited id of every component.
+         */
+        BFS,
+        /**
+         * Reverse Cuthill-McKee: breadth-first from a vertex of minimal degree, visiting the neighbours
+         * by ascending degree, with the final order reversed. Keeps the bandwidth of the adjacency matrix low.
+         */
+        REVERSE_CUTHILL_MCKEE,
+        /**
+         * Descending degree, so the hubs share the first cache lines.
+         */
+        DEGREE
+    }
+
+    private final AdjacencyListGraph graph;
+
+    private final Order order;
+
+    // New id of every original vertex, and the original id of every new vertex
+    private final int[] newIds;
+
+    private final int[] originalIds;
+
+    private ReorderedGraph(AdjacencyListGraph graph, Order order, int[] newIds, int[] originalIds) {
+        this.graph = graph;
+        this.order = order;
+        this.newIds = newIds;
+        this.originalIds = originalIds;
+    }
+
+    /**
+     * Renumbers the vertices of the graph in the given order. The original graph is not modified.
+     */
+    public static ReorderedGraph of(AdjacencyListGraph graph, Order order) {
+        final int[] originalIds = switch (order) {
+            case BFS -> breadthFirst(graph, false);
+            case REVERSE_CUTHILL_MCKEE -> reverse(breadthFirst(graph, true));
+            case DEGREE -> byDegree(graph);
+        };
+        final int vertices = graph.getVerticesNumber();
+        final int[] newIds = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            newIds[originalIds[v]] = v;
+        }
+        return new ReorderedGraph(relabel(graph, newIds, originalIds), order, newIds, originalIds);
+    }
+
+    public AdjacencyListGraph getGraph() {
+        return graph;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public int toReordered(int original) {
+        return newIds[original];
+    }
+
+    public int toOriginal(int reordered) {
+        return originalIds[reordered];
+    }
+
+    /**
+     * Per-vertex values of the reordered graph, e.g. distances, indexed by the original ids.
+     */
+    public int[] toOriginal(int[] values) {
+        final int[] original = new int[values.length];
+        for (int v = 0; v < values.length; v++) {
+            original[originalIds[v]] = values[v];
+        }
+        return original;
+    }
+
+    /**
+     * @see #toOriginal(int[])
+     */
+    public long[] toOriginal(long[] values) {
+        final long[] original = new long[values.length];
+        for (int v = 0; v < values.length; v++) {
+            original[originalIds[v]] = values[v];
+        }
+        return original;
+    }
+
+    /**
+     * Breadth-first order over the undirected edges, one traversal per component.
+     * @param cuthillMcKee whether components start at an unvisited vertex of minimal degree and neighbours
+     * are visited by ascending degree, as Cuthill-McKee does.
+     * @return original id of every position.
+     */
+    private static int[] breadthFirst(AdjacencyListGraph graph, boolean cuthillMcKee) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final ReversedGraph reversed = graph.getReversed();
+        final int[] inOffsets = reversed.getOffsets();
+        final int[] sources = reversed.getSources();
+        final int[] starts = cuthillMcKee ? reverse(byDegree(graph)) : null;
+
+        final int[] order = new int[vertices];
+        final boolean[] visited = new boolean[vertices];
+        // Neighbours of the current vertex as degree << 32 | id, sorted before they are queued
+        long[] neighbours = new long[16];
+        int size = 0;
+        int next = 0;
+        for (int i = 0; i < vertices; i++) {
+            final int start = cuthillMcKee ? starts[i] : i;
+            if (visited[start]) {
+                continue;
+            }
+            visited[start] = true;
+            order[size++] = start;
+            while (next < size) {
+                final int u = order[next++];
+                final int degree = offsets[u + 1] - offsets[u] + inOffsets[u + 1] - inOffsets[u];
+                if (neighbours.length < degree) {
+                    neighbours = new long[Math.max(degree, neighbours.length * 2)];
+                }
+                int count = 0;
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    count = visit(targets[j], visited, neighbours, count, cuthillMcKee, offsets, inOffsets);
+                }
+                for (int j = inOffsets[u]; j < inOffsets[u + 1]; j++) {
+                    count = visit(sources[j], visited, neighbours, count, cuthillMcKee, offsets, inOffsets);
+                }
+                if (cuthillMcKee) {
+                    Arrays.sort(neighbours, 0, count);
+                }
+                for (int j = 0; j < count; j++) {
+                    order[size++] = (int) neighbours[j];
+                }
+            }
+        }
+        return order;
+    }
+
+    private static int visit(int v, boolean[] visited, long[] neighbours, int count, boolean cuthillMcKee,
+                             int[] offsets, int[] inOffsets) {
+        if (visited[v]) {
+            return count;
+        }
+        visited[v] = true;
+        final long degree = cuthillMcKee ? offsets[v + 1] - offsets[v] + inOffsets[v + 1] - inOffsets[v] : 0;
+        neighbours[count] = degree << 32 | v;
+        return count + 1;
+    }
+
+    /**
+     * Counting sort by descending undirected degree, ties by ascending id.
+     * @return original id of every position.
+     */
+    private static int[] byDegree(AdjacencyListGraph graph) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] offsets = graph.getOffsets();
+        final int[] inOffsets = graph.getReversed().getOffsets();
+        final int[] degrees = new int[vertices];
+        int maxDegree = 0;
+        for (int v = 0; v < vertices; v++) {
+            degrees[v] = offsets[v + 1] - offsets[v] + inOffsets[v + 1] - inOffsets[v];
+            maxDegree = Math.max(maxDegree, degrees[v]);
+        }
+        // Bucket starts, highest degree first
+        final int[] position = new int[maxDegree + 2];
+        for (int v = 0; v < vertices; v++) {
+            position[maxDegree - degrees[v] + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            position[d + 1] += position[d];
+        }
+        final int[] order = new int[vertices];
+        for (int v = 0; v < vertices; v++) {
+            order[position[maxDegree - degrees[v]]++] = v;
+        }
+        return order;
+    }
+
+    private static int[] reverse(int[] order) {
+        for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+            final int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Builds the CSR with the new ids. The in-edges are walked by ascending new target, so every row
+     * ends up sorted by target.
+     */
+    private static AdjacencyListGraph relabel(AdjacencyListGraph graph, int[] newIds, int[] originalIds) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] offsets = graph.getOffsets();
+        final ReversedGraph reversed = graph.getReversed();
+        final int[] inOffsets = reversed.getOffsets();
+        final int[] sources = reversed.getSources();
+        final int[] inWeights = reversed.getWeights();
+
+        final int[] newOffsets = new int[vertices + 1];
+        for (int v = 0; v < vertices; v++) {
+            final int original = originalIds[v];
+            newOffsets[v + 1] = newOffsets[v] + offsets[original + 1] - offsets[original];
+        }
+        final int[] targets = new int[graph.getEdgesNumber()];
+        final int[] weights = new int[graph.getEdgesNumber()];
+        final int[] position = Arrays.copyOf(newOffsets, vertices);
+        for (int t = 0; t < vertices; t++) {
+            final int original = originalIds[t];
+            for (int j = inOffsets[original]; j < inOffsets[original + 1]; j++) {
+                final int slot = position[newIds[sources[j]]]++;
+                targets[slot] = t;
+                weights[slot] = inWeights[j];
+            }
+        }
+        return new AdjacencyListGraph(newOffsets, targets, weights);
+    }
+}
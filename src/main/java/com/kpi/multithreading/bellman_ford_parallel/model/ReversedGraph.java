@@ -0,0 +1,76 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * By-destination CSR view of an {@link AdjacencyListGraph}.
+ * In-edges of vertex {@code v} occupy the index range {@code [offsets[v], offsets[v + 1])}
+ * of the {@code sources} and {@code weights} arrays.
+ */
+public class ReversedGraph {
+
+    private final int[] offsets;
+
+    private final int[] sources;
+
+    private final int[] weights;
+
+    ReversedGraph(AdjacencyListGraph graph) {
+        final int vertices = graph.getVerticesNumber();
+        final int edges = graph.getEdgesNumber();
+        final int[] forwardOffsets = graph.getOffsets();
+        final int[] forwardTargets = graph.getTargets();
+        final int[] forwardWeights = graph.getWeights();
+
+        this.offsets = new int[vertices + 1];
+        this.sources = new int[edges];
+        this.weights = new int[edges];
+
+        for (int i = 0; i < edges; i++) {
+            offsets[forwardTargets[i] + 1]++;
+        }
+        for (int v = 0; v < vertices; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        final int[] position = new int[vertices];
+        System.arraycopy(offsets, 0, position, 0, vertices);
+        for (int u = 0; u < vertices; u++) {
+            for (int i = forwardOffsets[u]; i < forwardOffsets[u + 1]; i++) {
+                final int slot = position[forwardTargets[i]]++;
+                sources[slot] = u;
+                weights[slot] = forwardWeights[i];
+            }
+        }
+    }
+
+    public int getVerticesNumber() {
+        return offsets.length - 1;
+    }
+
+    public int getEdgesNumber() {
+        return sources.length;
+    }
+
+    public int getInDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * Row offsets by destination node. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Source node of every in-edge. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getSources() {
+        return sources;
+    }
+
+    /**
+     * Weight of every in-edge. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,53 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * Counters of one relaxation round.
+ */
+public class RoundMetrics {
+
+    private final int round;
+
+    private final long nanos;
+
+    private final long relaxationsAttempted;
+
+    private final long relaxationsSuccessful;
+
+    private final long activeVertices;
+
+    /**
+     * @param round number of the round, starting from 1.
+     * @param nanos wall-clock duration of the round.
+     * @param relaxationsAttempted edges scanned from a reachable source node.
+     * @param relaxationsSuccessful relaxations which lowered a distance.
+     * @param activeVertices nodes whose distance was lowered in the round.
+     */
+    public RoundMetrics(int round, long nanos, long relaxationsAttempted, long relaxationsSuccessful,
+                        long activeVertices) {
+        this.round = round;
+        this.nanos = nanos;
+        this.relaxationsAttempted = relaxationsAttempted;
+        this.relaxationsSuccessful = relaxationsSuccessful;
+        this.activeVertices = activeVertices;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getRelaxationsAttempted() {
+        return relaxationsAttempted;
+    }
+
+    public long getRelaxationsSuccessful() {
+        return relaxationsSuccessful;
+    }
+
+    public long getActiveVertices() {
+        return activeVertices;
+    }
+}
@@ -0,0 +1,45 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * Result of a single-source shortest path solve.
+ */
+public class ShortestPathResult {
+
+    /**
+     * Distance of the unreachable nodes. Paths of this length or longer saturate to it, so they count as unreachable.
+     */
+    public static final int INFINITY = Integer.MAX_VALUE;
+
+    private final int source;
+
+    private final int[] distances;
+
+    private final int rounds;
+
+    /**
+     * @param source source node of the solve.
+     * @param distances distance of every node, {@link #INFINITY} for unreachable nodes.
+     * @param rounds number of relaxation rounds actually executed.
+     */
+    public ShortestPathResult(int source, int[] distances, int rounds) {
+        this.source = source;
+        this.distances = distances;
+        this.rounds = rounds;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int[] getDistances() {
+        return distances;
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    public boolean isReachable(int vertex) {
+        return distances[vertex] != INFINITY;
+    }
+}
@@ -0,0 +1,134 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import java.util.Arrays;
+
+/**
+ * Shortest-path tree of a solve, one predecessor per node.
+ * <p>
+ * The tree is rebuilt from the final distances by a breadth-first search over the tight edges,
+ * the edges with {@code distance(u) + weight == distance(v)}, instead of being tracked during the solve.
+ * The relaxation kernels stay unchanged, races of the parallel solvers cannot leave a predecessor
+ * inconsistent with the distances, and zero weight cycles cannot make the tree cyclic.
+ */
+public class ShortestPathTree {
+
+    private static final int NONE = -1;
+
+    private final int source;
+
+    private final int[] predecessors;
+
+    private int[] buffer = new int[16];
+
+    private ShortestPathTree(int source, int[] predecessors) {
+        this.source = source;
+        this.predecessors = predecessors;
+    }
+
+    /**
+     * Builds the tree in {@code O(vertices + edges)}.
+     * @param graph solved graph.
+     * @param result shortest distances of the graph.
+     */
+    public static ShortestPathTree of(AdjacencyListGraph graph, ShortestPathResult result) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] distances = result.getDistances();
+        if (distances.length != vertices) {
+            throw new IllegalArgumentException("Result does not belong to the graph");
+        }
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final int[] weights = graph.getWeights();
+        final int source = result.getSource();
+
+        final int[] predecessors = new int[vertices];
+        Arrays.fill(predecessors, NONE);
+        final int[] queue = new int[vertices];
+        final boolean[] reached = new boolean[vertices];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        reached[source] = true;
+        while (head < tail) {
+            final int u = queue[head++];
+            final int du = distances[u];
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                final int v = targets[j];
+                if (!reached[v] && du + weights[j] == distances[v]) {
+                    reached[v] = true;
+                    predecessors[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return new ShortestPathTree(source, predecessors);
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * Predecessor of the node, {@code -1} for the source and unreachable nodes.
+     */
+    public int getPredecessor(int vertex) {
+        return predecessors[vertex];
+    }
+
+    /**
+     * Predecessor of every node. The array is shared, not copied, and must not be modified.
+     */
+    public int[] getPredecessors() {
+        return predecessors;
+    }
+
+    public boolean isReachable(int vertex) {
+        return vertex == source || predecessors[vertex] != NONE;
+    }
+
+    /**
+     * @return nodes from the source to the target, empty if the target is unreachable.
+     */
+    public int[] getPath(int target) {
+        final int length = fill(target);
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Streams the paths to the targets through one reused buffer, so no path is allocated.
+     * Not thread-safe.
+     */
+    public void forEachPath(int[] targets, PathConsumer consumer) {
+        for (int target : targets) {
+            // Filled first, the buffer may grow
+            final int length = fill(target);
+            consumer.accept(target, buffer, length);
+        }
+    }
+
+    /**
+     * Writes the path to the target into the buffer, walking the predecessors backwards and reversing.
+     * @return length of the path.
+     */
+    private int fill(int target) {
+        if (target < 0 || target >= predecessors.length) {
+            throw new IllegalArgumentException("Node " + target + " does not exist");
+        }
+        if (!isReachable(target)) {
+            return 0;
+        }
+        int length = 0;
+        for (int v = target; v != NONE; v = predecessors[v]) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, length * 2);
+            }
+            buffer[length++] = v;
+        }
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            final int node = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = node;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,94 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import java.util.List;
+
+/**
+ * Timings and counters of a solve, collected by
+ * {@link com.kpi.multithreading.bellman_ford_parallel.service.MetricsRecorder}.
+ */
+public class SolverMetrics {
+
+    private final long loadNanos;
+
+    private final long transformNanos;
+
+    private final long solveNanos;
+
+    private final List<RoundMetrics> rounds;
+
+    private final List<WorkerMetrics> workers;
+
+    /**
+     * @param loadNanos time to read the graph.
+     * @param transformNanos time to build the solver specific layout of the graph, zero when it was cached.
+     * @param solveNanos total time of the solve.
+     * @param rounds every relaxation round, in order.
+     * @param workers every parallel worker, empty for the sequential solvers.
+     */
+    public SolverMetrics(long loadNanos, long transformNanos, long solveNanos, List<RoundMetrics> rounds,
+                         List<WorkerMetrics> workers) {
+        this.loadNanos = loadNanos;
+        this.transformNanos = transformNanos;
+        this.solveNanos = solveNanos;
+        this.rounds = List.copyOf(rounds);
+        this.workers = List.copyOf(workers);
+    }
+
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    public long getTransformNanos() {
+        return transformNanos;
+    }
+
+    public long getSolveNanos() {
+        return solveNanos;
+    }
+
+    public List<RoundMetrics> getRounds() {
+        return rounds;
+    }
+
+    public List<WorkerMetrics> getWorkers() {
+        return workers;
+    }
+
+    public long getRelaxationsAttempted() {
+        return rounds.stream().mapToLong(RoundMetrics::getRelaxationsAttempted).sum();
+    }
+
+    public long getRelaxationsSuccessful() {
+        return rounds.stream().mapToLong(RoundMetrics::getRelaxationsSuccessful).sum();
+    }
+
+    public String toJson() {
+        final StringBuilder json = new StringBuilder(256 + rounds.size() * 128 + workers.size() * 64);
+        json.append("{\"loadNanos\":").append(loadNanos)
+                .append(",\"transformNanos\":").append(transformNanos)
+                .append(",\"solveNanos\":").append(solveNanos)
+                .append(",\"relaxationsAttempted\":").append(getRelaxationsAttempted())
+                .append(",\"relaxationsSuccessful\":").append(getRelaxationsSuccessful())
+                .append(",\"rounds\":[");
+        for (int i = 0; i < rounds.size(); i++) {
+            final RoundMetrics round = rounds.get(i);
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"round\":").append(round.getRound())
+                    .append(",\"nanos\":").append(round.getNanos())
+                    .append(",\"relaxationsAttempted\":").append(round.getRelaxationsAttempted())
+                    .append(",\"relaxationsSuccessful\":").append(round.getRelaxationsSuccessful())
+                    .append(",\"activeVertices\":").append(round.getActiveVertices())
+                    .append('}');
+        }
+        json.append("],\"workers\":[");
+        for (int i = 0; i < workers.size(); i++) {
+            final WorkerMetrics worker = workers.get(i);
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"worker\":").append(worker.getWorker())
+                    .append(",\"busyNanos\":").append(worker.getBusyNanos())
+                    .append(",\"waitNanos\":").append(worker.getWaitNanos())
+                    .append('}');
+        }
+        return json.append("]}").toString();
+    }
+}
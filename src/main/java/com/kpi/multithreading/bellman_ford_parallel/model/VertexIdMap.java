@@ -0,0 +1,144 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import java.util.Arrays;
+
+/**
+ * Maps external 64-bit node ids to dense ids {@code 0..size-1}, numbered in order of first appearance.
+ * The lookup side is a primitive open addressing hash table with linear probing, so no id is boxed.
+ */
+public class VertexIdMap {
+
+    private static final int NONE = -1;
+
+    /**
+     * Largest fill ratio of the table before it doubles.
+     */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * Largest table, which fills up beyond the load factor instead of doubling.
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+
+    // Dense id of every table slot, NONE for empty slots
+    private int[] values;
+
+    private long[] externalIds;
+
+    private int size;
+
+    private int mask;
+
+    public VertexIdMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize number of ids the map should hold without growing.
+     */
+    public VertexIdMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.externalIds = new long[Math.max(16, expectedSize)];
+        this.mask = capacity - 1;
+        Arrays.fill(values, NONE);
+    }
+
+    /**
+     * Returns the dense id of the external id, assigning the next one if it is new.
+     */
+    public int add(long id) {
+        int slot = slot(id);
+        while (values[slot] != NONE) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        // Linear probing needs an empty slot to end every lookup
+        if (size == keys.length - 1) {
+            throw new IllegalStateException("Too many vertices");
+        }
+        final int dense = size++;
+        keys[slot] = id;
+        values[slot] = dense;
+        if (dense == externalIds.length) {
+            final long capacity = Math.min(Integer.MAX_VALUE - 8, dense + (long) (dense >> 1));
+            externalIds = Arrays.copyOf(externalIds, (int) capacity);
+        }
+        externalIds[dense] = id;
+        if (size > keys.length * LOAD_FACTOR && keys.length < MAX_CAPACITY) {
+            rehash(keys.length << 1);
+        }
+        return dense;
+    }
+
+    /**
+     * @return dense id of the external id, or {@code -1} if it is unknown.
+     */
+    public int get(long id) {
+        int slot = slot(id);
+        while (values[slot] != NONE) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the external id is unknown.
+     */
+    public int toDense(long id) {
+        final int dense = get(id);
+        if (dense == NONE) {
+            throw new IllegalArgumentException("Node " + id + " does not exist");
+        }
+        return dense;
+    }
+
+    public long toExternal(int dense) {
+        if (dense < 0 || dense >= size) {
+            throw new IndexOutOfBoundsException(dense);
+        }
+        return externalIds[dense];
+    }
+
+    /**
+     * Number of mapped ids, which is also the number of vertices of the dense graph.
+     */
+    public int size() {
+        return size;
+    }
+
+    private int slot(long id) {
+        // Fibonacci hashing spreads sequential and strided ids over the whole table
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    private void rehash(int capacity) {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(values, NONE);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NONE) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != NONE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+/**
+ * Time split of one parallel worker over a whole solve.
+ */
+public class WorkerMetrics {
+
+    private final int worker;
+
+    private final long busyNanos;
+
+    private final long waitNanos;
+
+    /**
+     * @param worker index of the worker, i.e. of its partition.
+     * @param busyNanos time spent relaxing edges.
+     * @param waitNanos time spent idle at the end of the rounds, waiting for the other workers.
+     */
+    public WorkerMetrics(int worker, long busyNanos, long waitNanos) {
+        this.worker = worker;
+        this.busyNanos = busyNanos;
+        this.waitNanos = waitNanos;
+    }
+
+    public int getWorker() {
+        return worker;
+    }
+
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+}
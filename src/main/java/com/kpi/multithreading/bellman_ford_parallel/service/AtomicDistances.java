@@ -0,0 +1,35 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free access to a plain {@code int[]} distance array shared by several threads.
+ */
+final class AtomicDistances {
+
+    private static final VarHandle DISTANCES = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private AtomicDistances() {
+    }
+
+    static int get(int[] distances, int vertex) {
+        return (int) DISTANCES.getVolatile(distances, vertex);
+    }
+
+    /**
+     * Lowers {@code distances[vertex]} to {@code candidate} with compare-and-set, retrying while it is still lower.
+     * @return {@code true} if this call performed the update.
+     */
+    static boolean lower(int[] distances, int vertex, int candidate) {
+        int current = (int) DISTANCES.getVolatile(distances, vertex);
+        while (candidate < current) {
+            final int witness = (int) DISTANCES.compareAndExchange(distances, vertex, current, candidate);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,212 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-source Bellman-Ford. Sources are solved in batches of {@code batchSize}: one scan of the edge arrays
+ * relaxes the edge for every source of the batch. The distances of a batch are interleaved,
+ * {@code distances[vertex * batchSize + lane]}, so the lanes of a vertex share a cache line.
+ * With a thread pool the batches are solved in parallel.
+ */
+public class BellmanFordBatch implements ShortestPathSolver {
+
+    public static final int DEFAULT_BATCH_SIZE = 8;
+
+    private final int batchSize;
+
+    private final ExecutorService threadPool;
+
+    private final boolean ownsThreadPool;
+
+    /**
+     * Solves the batches one after another on the calling thread.
+     */
+    public BellmanFordBatch() {
+        this(null, DEFAULT_BATCH_SIZE, false);
+    }
+
+    public BellmanFordBatch(int nThreads) {
+        this(nThreads, DEFAULT_BATCH_SIZE);
+    }
+
+    public BellmanFordBatch(int nThreads, int batchSize) {
+        this(Executors.newFixedThreadPool(nThreads, new SolverThreadFactory("bellman-ford-batch")), batchSize, true);
+    }
+
+    /**
+     * Solves the batches on an external thread pool. The pool is not shut down by {@link #close()}.
+     * @param threadPool pool to run the batches on.
+     * @param batchSize number of sources relaxed per edge scan.
+     */
+    public BellmanFordBatch(ExecutorService threadPool, int batchSize) {
+        this(threadPool, batchSize, false);
+    }
+
+    private BellmanFordBatch(ExecutorService threadPool, int batchSize, boolean ownsThreadPool) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        this.threadPool = threadPool;
+        this.ownsThreadPool = ownsThreadPool;
+    }
+
+    @Override
+    public ShortestPathResult solve(AdjacencyListGraph graph, int source, SolverListener listener) {
+        return solveBatch(graph, new int[] {source}, 0, 1, listener)[0];
+    }
+
+    /**
+     * @param graph graph to solve.
+     * @param sources source nodes.
+     * @return result of every source, in the order of {@code sources}.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from any source.
+     */
+    public ShortestPathResult[] solveMany(AdjacencyListGraph graph, int[] sources) {
+        final ShortestPathResult[] results = new ShortestPathResult[sources.length];
+        if (threadPool == null) {
+            for (int begin = 0; begin < sources.length; begin += batchSize) {
+                final int end = Math.min(sources.length, begin + batchSize);
+                System.arraycopy(solveBatch(graph, sources, begin, end, SolverListener.NONE), 0, results, begin, end - begin);
+            }
+            return results;
+        }
+
+        final List<Future<ShortestPathResult[]>> batches = new ArrayList<>();
+        for (int begin = 0; begin < sources.length; begin += batchSize) {
+            final int batchBegin = begin;
+            final int batchEnd = Math.min(sources.length, begin + batchSize);
+            batches.add(threadPool.submit(() -> solveBatch(graph, sources, batchBegin, batchEnd,
+                    SolverListener.NONE)));
+        }
+        try {
+            int position = 0;
+            for (Future<ShortestPathResult[]> batch : batches) {
+                final ShortestPathResult[] batchResults = batch.get();
+                System.arraycopy(batchResults, 0, results, position, batchResults.length);
+                position += batchResults.length;
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalStateException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            for (Future<ShortestPathResult[]> batch : batches) {
+                batch.cancel(true);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Shuts down the thread pool if it was created by the solver.
+     */
+    @Override
+    public void close() {
+        if (ownsThreadPool) {
+            threadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Solves one batch. The round metrics sum the lanes, and the distances are updated in place,
+     * so a node lowered twice in a round counts twice as active.
+     */
+    private static ShortestPathResult[] solveBatch(AdjacencyListGraph graph, int[] sources, int begin, int end,
+                                                   SolverListener listener) {
+        final int lanes = end - begin;
+        final int vertices = graph.getVerticesNumber();
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final int[] weights = graph.getWeights();
+        final int[] distances = new int[Math.multiplyExact(vertices, lanes)];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = Integer.MAX_VALUE;
+        }
+        for (int k = 0; k < lanes; k++) {
+            distances[sources[begin + k] * lanes + k] = 0;
+        }
+
+        // Round of the last update of every lane
+        final int[] lastChanged = new int[lanes];
+        final boolean[] laneChanged = new boolean[lanes];
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < vertices - 1) {
+            changed = false;
+            rounds++;
+            final long roundStart = System.nanoTime();
+            long attempted = 0;
+            long successful = 0;
+            for (int u = 0; u < vertices; u++) {
+                final int uBase = u * lanes;
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    final int vBase = targets[j] * lanes;
+                    final int weight = weights[j];
+                    for (int k = 0; k < lanes; k++) {
+                        final int du = distances[uBase + k];
+                        if (du != Integer.MAX_VALUE) {
+                            attempted++;
+                            final int candidate = IntDistances.add(du, weight);
+                            if (candidate < distances[vBase + k]) {
+                                distances[vBase + k] = candidate;
+                                laneChanged[k] = true;
+                                successful++;
+                            }
+                        }
+                    }
+                }
+            }
+            listener.roundCompleted(new RoundMetrics(rounds, System.nanoTime() - roundStart, attempted, successful,
+                    successful));
+            for (int k = 0; k < lanes; k++) {
+                if (laneChanged[k]) {
+                    lastChanged[k] = rounds;
+                    laneChanged[k] = false;
+                    changed = true;
+                }
+            }
+        }
+
+        // A round without updates proves there is no negative cycle
+        if (changed) {
+            for (int u = 0; u < vertices; u++) {
+                final int uBase = u * lanes;
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    final int vBase = targets[j] * lanes;
+                    for (int k = 0; k < lanes; k++) {
+                        final int du = distances[uBase + k];
+                        if (du != Integer.MAX_VALUE && IntDistances.add(du, weights[j]) < distances[vBase + k]) {
+                            throw NegativeCycleFinder.exception(graph, sources[begin + k]);
+                        }
+                    }
+                }
+            }
+        }
+
+        final ShortestPathResult[] results = new ShortestPathResult[lanes];
+        for (int k = 0; k < lanes; k++) {
+            final int[] laneDistances = new int[vertices];
+            for (int v = 0; v < vertices; v++) {
+                laneDistances[v] = distances[v * lanes + k];
+            }
+            // The round detecting convergence is counted too, as in the single-source solvers
+            results[k] = new ShortestPathResult(sources[begin + k], laneDistances,
+                    Math.min(lastChanged[k] + 1, rounds));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,140 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleWeightedGraph;
+
+/**
+ * Bellman-Ford with {@code double} weights and distances, run by {@link WideBellmanFord}.
+ * A relaxation must lower a distance by more than {@link #TOLERANCE} of its operands, so rounding errors along
+ * a zero weight cycle, e.g. {@code 0.1 + 0.7 - 0.8 < 0}, are not mistaken for a negative cycle.
+ */
+public class BellmanFordDouble extends WideBellmanFord<DoubleWeightedGraph, double[]> {
+
+    /**
+     * Relative tolerance of a relaxation, well above the rounding error of adding {@code double} values.
+     */
+    static final double TOLERANCE = 1e-9;
+
+    private static final double INFINITY = DoubleShortestPathResult.INFINITY;
+
+    public BellmanFordDouble() {
+        this(1);
+    }
+
+    /**
+     * @param nThreads number of threads, one runs on the calling thread without a pool.
+     */
+    public BellmanFordDouble(int nThreads) {
+        super(nThreads, "bellman-ford-double");
+    }
+
+    /**
+     * Runs at most {@code vertices - 1} rounds and stops after the first round without updates.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     */
+    public DoubleShortestPathResult solve(DoubleWeightedGraph graph, int source) {
+        return solve(graph, source, SolverListener.NONE);
+    }
+
+    /**
+     * Solves like {@link #solve(DoubleWeightedGraph, int)}, reporting the rounds and, with several threads, the workers.
+     */
+    public DoubleShortestPathResult solve(DoubleWeightedGraph graph, int source, SolverListener listener) {
+        final int vertices = graph.getVerticesNumber();
+        final double[] distances = new double[vertices];
+        for (int i = 0; i < vertices; i++) {
+            distances[i] = INFINITY;
+        }
+        distances[source] = 0;
+
+        final int rounds = run(graph, distances, vertices, listener);
+        if (rounds < 0) {
+            throw NegativeCycleFinder.exception(graph, source);
+        }
+        return new DoubleShortestPathResult(source, distances, rounds);
+    }
+
+    @Override
+    DoubleWeightedGraph reversed(DoubleWeightedGraph graph) {
+        return graph.getReversed();
+    }
+
+    @Override
+    int[] offsets(DoubleWeightedGraph graph) {
+        return graph.getOffsets();
+    }
+
+    @Override
+    boolean scan(DoubleWeightedGraph graph, double[] distances, boolean update, RelaxationCounters counters) {
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final double[] weights = graph.getWeights();
+        long attempted = 0;
+        long successful = 0;
+        for (int u = 0; u < distances.length; u++) {
+            final double du = distances[u];
+            if (du == INFINITY) {
+                continue;
+            }
+            attempted += offsets[u + 1] - offsets[u];
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                final int v = targets[j];
+                if (lowers(du, weights[j], distances[v])) {
+                    if (!update) {
+                        return true;
+                    }
+                    distances[v] = du + weights[j];
+                    successful++;
+                }
+            }
+        }
+        counters.attempted += attempted;
+        counters.successful += successful;
+        counters.active += successful;
+        return successful > 0;
+    }
+
+    @Override
+    boolean relax(DoubleWeightedGraph byDestination, double[] distances, int vertexBegin, int vertexEnd,
+                  boolean update, RelaxationCounters counters) {
+        final int[] offsets = byDestination.getOffsets();
+        final int[] sources = byDestination.getTargets();
+        final double[] weights = byDestination.getWeights();
+        long attempted = 0;
+        long successful = 0;
+        long active = 0;
+        for (int v = vertexBegin; v < vertexEnd; v++) {
+            final double current = distances[v];
+            double dv = current;
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                final double du = distances[sources[j]];
+                if (du != INFINITY) {
+                    attempted++;
+                }
+                if (du != INFINITY && lowers(du, weights[j], dv)) {
+                    dv = du + weights[j];
+                    successful++;
+                }
+            }
+            if (dv != current) {
+                if (!update) {
+                    return true;
+                }
+                distances[v] = dv;
+                active++;
+            }
+        }
+        counters.attempted += attempted;
+        counters.successful += successful;
+        counters.active += active;
+        return active > 0;
+    }
+
+    /**
+     * Whether the path through an edge is shorter than the current distance by more than the tolerance,
+     * {@code current} may be infinite.
+     */
+    static boolean lowers(double du, double weight, double current) {
+        return du + weight < current - TOLERANCE * (Math.abs(du) + Math.abs(weight));
+    }
+}
@@ -0,0 +1,158 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongWeightedGraph;
+
+/**
+ * Bellman-Ford with 64-bit distances, run by {@link WideBellmanFord}.
+ */
+public class BellmanFordLong extends WideBellmanFord<LongWeightedGraph, long[]> {
+
+    private static final long INFINITY = LongShortestPathResult.INFINITY;
+
+    public BellmanFordLong() {
+        this(1);
+    }
+
+    /**
+     * @param nThreads number of threads, one runs on the calling thread without a pool.
+     */
+    public BellmanFordLong(int nThreads) {
+        super(nThreads, "bellman-ford-long");
+    }
+
+    /**
+     * Whether no shortest path of the graph can overflow the {@code int} distances of the other solvers,
+     * i.e. {@code (vertices - 1) * max |weight|} stays below {@link Integer#MAX_VALUE}.
+     */
+    public static boolean fitsInt(AdjacencyListGraph graph) {
+        long maxWeight = 0;
+        for (int weight : graph.getWeights()) {
+            maxWeight = Math.max(maxWeight, Math.abs((long) weight));
+        }
+        return (graph.getVerticesNumber() - 1L) * maxWeight < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Runs at most {@code vertices - 1} rounds and stops after the first round without updates.
+     * @throws IllegalArgumentException if a shortest path could overflow 64 bits.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     */
+    public LongShortestPathResult solve(LongWeightedGraph graph, int source) {
+        return solve(graph, source, SolverListener.NONE);
+    }
+
+    /**
+     * Solves like {@link #solve(LongWeightedGraph, int)}, reporting the rounds and, with several threads, the workers.
+     */
+    public LongShortestPathResult solve(LongWeightedGraph graph, int source, SolverListener listener) {
+        final int vertices = graph.getVerticesNumber();
+        checkBounds(graph);
+        final long[] distances = new long[vertices];
+        for (int i = 0; i < vertices; i++) {
+            distances[i] = INFINITY;
+        }
+        distances[source] = 0;
+
+        final int rounds = run(graph, distances, vertices, listener);
+        if (rounds < 0) {
+            throw NegativeCycleFinder.exception(graph, source);
+        }
+        return new LongShortestPathResult(source, distances, rounds);
+    }
+
+    @Override
+    LongWeightedGraph reversed(LongWeightedGraph graph) {
+        return graph.getReversed();
+    }
+
+    @Override
+    int[] offsets(LongWeightedGraph graph) {
+        return graph.getOffsets();
+    }
+
+    @Override
+    boolean scan(LongWeightedGraph graph, long[] distances, boolean update, RelaxationCounters counters) {
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final long[] weights = graph.getWeights();
+        long attempted = 0;
+        long successful = 0;
+        for (int u = 0; u < distances.length; u++) {
+            final long du = distances[u];
+            if (du == INFINITY) {
+                continue;
+            }
+            attempted += offsets[u + 1] - offsets[u];
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                final int v = targets[j];
+                if (du + weights[j] < distances[v]) {
+                    if (!update) {
+                        return true;
+                    }
+                    distances[v] = du + weights[j];
+                    successful++;
+                }
+            }
+        }
+        counters.attempted += attempted;
+        counters.successful += successful;
+        counters.active += successful;
+        return successful > 0;
+    }
+
+    @Override
+    boolean relax(LongWeightedGraph byDestination, long[] distances, int vertexBegin, int vertexEnd,
+                  boolean update, RelaxationCounters counters) {
+        final int[] offsets = byDestination.getOffsets();
+        final int[] sources = byDestination.getTargets();
+        final long[] weights = byDestination.getWeights();
+        long attempted = 0;
+        long successful = 0;
+        long active = 0;
+        for (int v = vertexBegin; v < vertexEnd; v++) {
+            final long current = distances[v];
+            long dv = current;
+            for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                final long du = distances[sources[j]];
+                if (du != INFINITY) {
+                    attempted++;
+                }
+                if (du != INFINITY && du + weights[j] < dv) {
+                    dv = du + weights[j];
+                    successful++;
+                }
+            }
+            if (dv != current) {
+                if (!update) {
+                    return true;
+                }
+                distances[v] = dv;
+                active++;
+            }
+        }
+        counters.attempted += attempted;
+        counters.successful += successful;
+        counters.active += active;
+        return active > 0;
+    }
+
+    /**
+     * Rejects graphs where {@code (vertices - 1) * max |weight|} does not fit into 63 bits,
+     * so no relaxation can overflow.
+     */
+    private static void checkBounds(LongWeightedGraph graph) {
+        long maxWeight = 0;
+        for (long weight : graph.getWeights()) {
+            if (weight == Long.MIN_VALUE) {
+                throw new IllegalArgumentException("Path lengths may overflow 64-bit distances");
+            }
+            maxWeight = Math.max(maxWeight, Math.abs(weight));
+        }
+        if (Math.multiplyHigh(graph.getVerticesNumber(), maxWeight) != 0
+                || graph.getVerticesNumber() * maxWeight >= INFINITY / 2) {
+            throw new IllegalArgumentException("Path lengths may overflow 64-bit distances");
+        }
+    }
+}
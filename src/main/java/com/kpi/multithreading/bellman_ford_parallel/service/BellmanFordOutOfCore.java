@@ -0,0 +1,155 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.PartitionedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bellman-Ford over a {@link PartitionedGraph} whose edges stay on disk. Only the distances are kept on the heap.
+ * Every round streams the destination blocks in order and relaxes the in-edges of each destination, while a
+ * background thread loads the next block into the page cache, so reading and relaxing overlap.
+ * Every distance has a single writer, the blocks need no synchronization beyond the hand-off of the prefetch.
+ */
+public class BellmanFordOutOfCore implements AutoCloseable {
+
+    private static final int INFINITY = ShortestPathResult.INFINITY;
+
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(
+            new SolverThreadFactory("block-prefetch"));
+
+    public ShortestPathResult solve(PartitionedGraph graph, int source) {
+        return solve(graph, source, SolverListener.NONE);
+    }
+
+    /**
+     * Runs at most {@code vertices - 1} rounds and stops after the first round without updates.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     */
+    public ShortestPathResult solve(PartitionedGraph graph, int source, SolverListener listener) {
+        final int vertices = graph.getVerticesNumber();
+        if (source < 0 || source >= vertices) {
+            throw new IllegalArgumentException("Node " + source + " does not exist");
+        }
+        final int[] distances = new int[vertices];
+        Arrays.fill(distances, INFINITY);
+        distances[source] = 0;
+
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < vertices - 1) {
+            rounds++;
+            changed = round(graph, distances, null, rounds, listener);
+        }
+        // A round without updates proves there is no negative cycle
+        if (changed && round(graph, distances, null, rounds + 1, SolverListener.NONE)) {
+            throw new NegativeCycleException(findCycle(graph, distances));
+        }
+        return new ShortestPathResult(source, distances, rounds);
+    }
+
+    /**
+     * Relaxes all blocks once, loading block {@code b + 1} while block {@code b} is relaxed.
+     * @param predecessors predecessor of every lowered distance, or {@code null} if they are not tracked.
+     * @return {@code true} if any distance was lowered.
+     */
+    private boolean round(PartitionedGraph graph, int[] distances, int[] predecessors, int round,
+                          SolverListener listener) {
+        final long roundStart = System.nanoTime();
+        final int blocks = graph.getBlocksNumber();
+        long successful = 0;
+        Future<?> next = blocks == 1 ? null : prefetch(graph.getBlock(0));
+        for (int b = 0; b < blocks; b++) {
+            final Future<?> current = next;
+            next = b + 1 < blocks ? prefetch(graph.getBlock(b + 1)) : null;
+            await(current);
+            successful += relax(graph.getBlock(b), distances, predecessors);
+        }
+        listener.roundCompleted(new RoundMetrics(round, System.nanoTime() - roundStart, graph.getEdgesNumber(),
+                successful, successful));
+        return successful > 0;
+    }
+
+    /**
+     * Lowers every destination of the block to its best in-edge.
+     * @return number of lowered distances.
+     */
+    private static long relax(PartitionedGraph.Block block, int[] distances, int[] predecessors) {
+        final IntBuffer offsets = block.getOffsets();
+        final IntBuffer sources = block.getSources();
+        final IntBuffer weights = block.getWeights();
+        final int begin = block.getBegin();
+        long lowered = 0;
+        for (int v = begin; v < block.getEnd(); v++) {
+            final int current = distances[v];
+            int dv = current;
+            int predecessor = -1;
+            for (int j = offsets.get(v - begin); j < offsets.get(v - begin + 1); j++) {
+                final int u = sources.get(j);
+                final int du = distances[u];
+                if (du != INFINITY && IntDistances.add(du, weights.get(j)) < dv) {
+                    dv = IntDistances.add(du, weights.get(j));
+                    predecessor = u;
+                }
+            }
+            if (dv != current) {
+                distances[v] = dv;
+                if (predecessors != null) {
+                    predecessors[v] = predecessor;
+                }
+                lowered++;
+            }
+        }
+        return lowered;
+    }
+
+    /**
+     * Keeps relaxing with predecessors until the predecessor graph holds a cycle, which is then negative.
+     * Runs only after a negative cycle was detected, so the rounds above do not track predecessors.
+     */
+    private int[] findCycle(PartitionedGraph graph, int[] distances) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] predecessors = new int[vertices];
+        Arrays.fill(predecessors, -1);
+        for (int i = 0; i < vertices; i++) {
+            round(graph, distances, predecessors, i + 1, SolverListener.NONE);
+            final int[] cycle = NegativeCycleFinder.cycleOf(predecessors);
+            if (cycle != null) {
+                return cycle;
+            }
+        }
+        throw new IllegalStateException("Graph contains negative weight cycle");
+    }
+
+    private Future<?> prefetch(PartitionedGraph.Block block) {
+        return prefetcher.submit(block::load);
+    }
+
+    private static void await(Future<?> prefetch) {
+        if (prefetch == null) {
+            return;
+        }
+        try {
+            prefetch.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Stops the prefetch thread.
+     */
+    @Override
+    public void close() {
+        prefetcher.shutdownNow();
+    }
+}
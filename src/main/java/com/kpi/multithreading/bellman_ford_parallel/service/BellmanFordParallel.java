@@ -1,30 +1,157 @@
 package com.kpi.multithreading.bellman_ford_parallel.service;
 
 import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
-import com.kpi.multithreading.bellman_ford_parallel.model.Edge;
+import com.kpi.multithreading.bellman_ford_parallel.model.ReversedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.WorkerMetrics;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
 
-public class BellmanFordParallel {
+/**
+ * Parallel Bellman-Ford. The pull strategies partition the vertices by destination, so every distance
+ * has a single writer; the push strategy partitions by source and lowers distances with compare-and-set.
+ * The solver keeps its thread pool between calls and caches the partition layout of every graph
+ * it has solved, so it is meant to be created once and reused.
+ */
+public class BellmanFordParallel implements ShortestPathSolver {
 
-    private final int nThread;
+    /**
+     * How the relaxation rounds are scheduled on the thread pool.
+     */
+    public enum Strategy {
+        /**
+         * Every round submits one task per destination range of about {@code grainSize} in-edges
+         * and waits for all of them.
+         */
+        TASKS,
+        /**
+         * One long-running worker per thread owns a static destination partition
+         * and the workers advance round by round on a {@link CyclicBarrier}.
+         * The thread pool must be able to run {@code nThreads} tasks at the same time.
+         */
+        BARRIER,
+        /**
+         * Barrier workers own source ranges holding equal numbers of out-edges and push updates
+         * to any destination with compare-and-set. Balances power-law graphs where a few vertices
+         * own most of the in-edges. Has the same thread pool requirement as {@link #BARRIER}.
+         */
+        PUSH,
+        /**
+         * Every round is a fork/join task recursively splitting the destination range
+         * down to about {@code grainSize} in-edges, so idle threads steal work from the stragglers.
+         * Runs on a {@link ForkJoinPool}.
+         */
+        WORK_STEALING
+    }
+
+    /**
+     * Grain size telling the solver to tune it from the graph size and the number of threads.
+     */
+    public static final int AUTO_GRAIN_SIZE = 0;
+
+    /**
+     * Smallest automatic grain size, so that tiny tasks do not drown in scheduling overhead.
+     */
+    private static final int MIN_GRAIN_SIZE = 1024;
+
+    /**
+     * Automatic grain size aims at this many tasks per thread, leaving room for balancing.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final int nThreads;
+
+    private final Strategy strategy;
+
+    private final int grainSize;
+
+    private final ExecutorService threadPool;
+
+    private final boolean ownsThreadPool;
+
+    private final Map<AdjacencyListGraph, Layout> layouts = Collections.synchronizedMap(new WeakHashMap<>());
 
     public BellmanFordParallel(int nThreads) {
-        this.nThread = nThreads;
+        this(nThreads, Strategy.TASKS);
+    }
+
+    public BellmanFordParallel(int nThreads, Strategy strategy) {
+        this(nThreads, strategy, AUTO_GRAIN_SIZE);
     }
 
-    public int[] solve(AdjacencyListGraph graph, int source) {
+    /**
+     * @param nThreads number of threads.
+     * @param strategy scheduling of the relaxation rounds.
+     * @param grainSize in-edges per task of {@link Strategy#TASKS} and {@link Strategy#WORK_STEALING},
+     *                  or {@link #AUTO_GRAIN_SIZE}.
+     */
+    public BellmanFordParallel(int nThreads, Strategy strategy, int grainSize) {
+        this(createThreadPool(nThreads, strategy), nThreads, strategy, grainSize, true);
+    }
+
+    /**
+     * Runs the solver on an external thread pool. The pool is not shut down by {@link #close()}.
+     * @param threadPool pool to run the relaxation tasks on.
+     * @param nThreads number of threads of the pool.
+     */
+    public BellmanFordParallel(ExecutorService threadPool, int nThreads) {
+        this(threadPool, nThreads, Strategy.TASKS);
+    }
+
+    public BellmanFordParallel(ExecutorService threadPool, int nThreads, Strategy strategy) {
+        this(threadPool, nThreads, strategy, AUTO_GRAIN_SIZE);
+    }
+
+    public BellmanFordParallel(ExecutorService threadPool, int nThreads, Strategy strategy, int grainSize) {
+        this(threadPool, nThreads, strategy, grainSize, false);
+    }
+
+    private BellmanFordParallel(ExecutorService threadPool, int nThreads, Strategy strategy, int grainSize,
+                                boolean ownsThreadPool) {
+        if (nThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        if (grainSize < 0) {
+            throw new IllegalArgumentException("Grain size must not be negative");
+        }
+        if (strategy == Strategy.WORK_STEALING && !(threadPool instanceof ForkJoinPool)) {
+            throw new IllegalArgumentException("Work stealing strategy requires a ForkJoinPool");
+        }
+        this.nThreads = nThreads;
+        this.strategy = strategy;
+        this.grainSize = grainSize;
+        this.threadPool = threadPool;
+        this.ownsThreadPool = ownsThreadPool;
+    }
+
+    private static ExecutorService createThreadPool(int nThreads, Strategy strategy) {
+        if (strategy == Strategy.WORK_STEALING) {
+            return new ForkJoinPool(nThreads);
+        }
+        return Executors.newFixedThreadPool(nThreads, new SolverThreadFactory("bellman-ford-parallel"));
+    }
+
+    /**
+     * Runs at most {@code vertices - 1} rounds and stops after the first round without updates.
+     * The workers reported to the listener are the partitions; {@link Strategy#WORK_STEALING} has none.
+     * The push strategy counts a node lowered twice in a round twice as active.
+     */
+    @Override
+    public ShortestPathResult solve(AdjacencyListGraph graph, int source, SolverListener listener) {
         final int vertices = graph.getVerticesNumber();
-        final int edges = graph.getEdgesNumber();
-        // Number of tasks
-        final int parallelism = edges < 1000 ? 1 : edges / 1000;
         final int[] distances = new int[vertices];
 
         // Initialization
@@ -34,70 +161,386 @@ public class BellmanFordParallel {
         distances[source] = 0;
 
         // Graph transformation
-        final Map<Integer, List<Edge>> byDestination = new HashMap<>();
-        for (int i = 0; i < edges; i++) {
-            final Edge edge = graph.getEdge(i);
-            byDestination.compute(edge.nodeB(), (k, v) -> {
-                if (v == null) {
-                    final List<Edge> l = new ArrayList<>();
-                    l.add(edge);
-                    return l;
-                }
-                v.add(edge);
-                return v;
-            });
-        }
+        final long transformStart = System.nanoTime();
+        final Layout layout = layouts.computeIfAbsent(graph, this::createLayout);
+        listener.graphTransformed(System.nanoTime() - transformStart);
 
-        final List<List<Edge>> transformedGraph = new ArrayList<>(byDestination.values());
+        final int rounds;
+        try {
+            rounds = switch (strategy) {
+                case TASKS -> solveWithTasks(layout, distances, listener);
+                case BARRIER, PUSH -> solveWithBarrier(graph, layout, distances, listener);
+                case WORK_STEALING -> solveWithWorkStealing(layout, distances, listener);
+            };
+        } catch (ExecutionException e) {
+            // The kernels only signal the cycle, it is extracted on the calling thread
+            if (e.getCause() instanceof CycleDetected) {
+                throw NegativeCycleFinder.exception(graph, source);
+            }
+            throw new RuntimeException(e);
+        } catch (CycleDetected e) {
+            throw NegativeCycleFinder.exception(graph, source);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
 
-        final int perThread = byDestination.size() / parallelism;
-        final int extra = byDestination.size() % parallelism;
+        return new ShortestPathResult(source, distances, rounds);
+    }
 
-        final ExecutorService threadPool = Executors.newFixedThreadPool(nThread);
-        try {
-            // Main part
-            final List<Future<?>> results  = new ArrayList<>(parallelism);
-            for (int i = 1; i < vertices; i++) {
-                int offset = 0;
-                for (int j = 0; j < parallelism; j++) {
-                    final int nVertices = (j < extra) ? perThread + 1 : perThread;
-                    final Runnable task = new RecomputeDistanceTask(transformedGraph, distances, offset,
-                            offset + nVertices);
-                    results.add(threadPool.submit(task));
-                    offset += nVertices;
-                }
+    private int solveWithTasks(Layout layout, int[] distances, SolverListener listener)
+            throws ExecutionException, InterruptedException {
+        final int vertices = distances.length;
+        final int parallelism = layout.parallelism();
 
-                for (Future<?> result : results) {
-                    result.get();
-                }
-                results.clear();
-            }
+        final List<RecomputeDistanceTask> recomputeTasks = new ArrayList<>(parallelism);
+        final List<Runnable> verifyTasks = new ArrayList<>(parallelism);
+        for (int j = 0; j < parallelism; j++) {
+            recomputeTasks.add(new RecomputeDistanceTask(layout.byDestination, distances, layout.boundaries[j],
+                    layout.boundaries[j + 1]));
+            verifyTasks.add(new VerifyDistanceTask(layout.byDestination, distances, layout.boundaries[j],
+                    layout.boundaries[j + 1]));
+        }
 
-            // Negative cycle verification
-            int offset = 0;
-            for (int j = 0; j < parallelism; j++) {
-                final int nVertices = (j < extra) ? perThread + 1 : perThread;
-                final Runnable task = new VerifyDistanceTask(transformedGraph, distances, offset,
-                        offset + nVertices);
+        // Main part
+        final List<Future<?>> results  = new ArrayList<>(parallelism);
+        final long[] busyNanos = new long[parallelism];
+        final long[] waitNanos = new long[parallelism];
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < vertices - 1) {
+            rounds++;
+            final long roundStart = System.nanoTime();
+            for (Runnable task : recomputeTasks) {
                 results.add(threadPool.submit(task));
-                offset += nVertices;
             }
 
             for (Future<?> result : results) {
                 result.get();
             }
-        } catch (ExecutionException | InterruptedException e) {
-            throw new RuntimeException(e);
+            results.clear();
+            final long roundNanos = System.nanoTime() - roundStart;
+
+            changed = false;
+            final RelaxationCounters total = new RelaxationCounters();
+            for (int j = 0; j < parallelism; j++) {
+                final RecomputeDistanceTask task = recomputeTasks.get(j);
+                changed |= task.isChanged();
+                total.add(task.getCounters());
+                busyNanos[j] += task.getCounters().nanos;
+                waitNanos[j] += Math.max(0, roundNanos - task.getCounters().nanos);
+            }
+            listener.roundCompleted(total.toRound(rounds, roundNanos));
+        }
+        for (int j = 0; j < parallelism; j++) {
+            listener.workerCompleted(new WorkerMetrics(j, busyNanos[j], waitNanos[j]));
+        }
+
+        // A round without updates proves there is no negative cycle
+        if (!changed) {
+            return rounds;
+        }
+
+        // Negative cycle verification
+        for (Runnable task : verifyTasks) {
+            results.add(threadPool.submit(task));
+        }
+
+        for (Future<?> result : results) {
+            result.get();
+        }
+        return rounds;
+    }
+
+    private int solveWithBarrier(AdjacencyListGraph graph, Layout layout, int[] distances, SolverListener listener)
+            throws ExecutionException, InterruptedException {
+        final int parallelism = layout.parallelism();
+        final BarrierWorker[] workers = new BarrierWorker[parallelism];
+        final RoundState state = new RoundState(distances.length - 1);
+        // Runs on the last thread arriving at the barrier, before any worker is released
+        final CyclicBarrier barrier = new CyclicBarrier(parallelism, () -> {
+            boolean changed = false;
+            final RelaxationCounters total = new RelaxationCounters();
+            for (BarrierWorker worker : workers) {
+                changed |= worker.recompute.isChanged();
+                total.add(worker.recompute.getCounters());
+            }
+            state.rounds++;
+            state.converged = !changed;
+            final long now = System.nanoTime();
+            listener.roundCompleted(total.toRound(state.rounds, now - state.roundStart));
+            state.roundStart = now;
+        });
+
+        final List<Future<Void>> results = new ArrayList<>(parallelism);
+        for (int j = 0; j < parallelism; j++) {
+            final int begin = layout.boundaries[j];
+            final int end = layout.boundaries[j + 1];
+            if (strategy == Strategy.PUSH) {
+                workers[j] = new BarrierWorker(new PushDistanceTask(graph, distances, begin, end),
+                        new VerifyPushDistanceTask(graph, distances, begin, end), barrier, state);
+            } else {
+                workers[j] = new BarrierWorker(new RecomputeDistanceTask(layout.byDestination, distances, begin, end),
+                        new VerifyDistanceTask(layout.byDestination, distances, begin, end), barrier, state);
+            }
+        }
+        state.roundStart = System.nanoTime();
+        for (BarrierWorker worker : workers) {
+            results.add(threadPool.submit(worker));
+        }
+
+        ExecutionException failure = null;
+        try {
+            for (Future<Void> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    // Workers released by a broken barrier only report the failure of another one
+                    if (failure == null || failure.getCause() instanceof BrokenBarrierException) {
+                        failure = e;
+                    }
+                }
+            }
         } finally {
+            for (Future<Void> result : results) {
+                result.cancel(true);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        for (int j = 0; j < parallelism; j++) {
+            listener.workerCompleted(new WorkerMetrics(j, workers[j].busyNanos, workers[j].waitNanos));
+        }
+        return state.rounds;
+    }
+
+    private int solveWithWorkStealing(Layout layout, int[] distances, SolverListener listener) {
+        final ForkJoinPool forkJoinPool = (ForkJoinPool) threadPool;
+        final int vertices = distances.length;
+
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < vertices - 1) {
+            rounds++;
+            final long roundStart = System.nanoTime();
+            final RelaxationCounters total = forkJoinPool.invoke(new RecursiveDistanceTask(layout.byDestination,
+                    distances, 0, vertices, layout.grainSize, false));
+            changed = total.active > 0;
+            listener.roundCompleted(total.toRound(rounds, System.nanoTime() - roundStart));
+        }
+
+        // A round without updates proves there is no negative cycle
+        if (changed) {
+            forkJoinPool.invoke(new RecursiveDistanceTask(layout.byDestination, distances, 0, vertices,
+                    layout.grainSize, true));
+        }
+        return rounds;
+    }
+
+    /**
+     * Shuts down the thread pool if it was created by the solver.
+     */
+    @Override
+    public void close() {
+        if (ownsThreadPool) {
             threadPool.shutdownNow();
         }
+    }
 
-        return distances;
+    private Layout createLayout(AdjacencyListGraph graph) {
+        final int vertices = graph.getVerticesNumber();
+        final int edges = graph.getEdgesNumber();
+        // Number of tasks
+        // Every vertex costs one unit on top of its edges, so ranges of edgeless vertices are not free
+        final long cost = (long) edges + vertices;
+        final int grain = grainSize != AUTO_GRAIN_SIZE ? grainSize
+                : (int) Math.min(Integer.MAX_VALUE,
+                        Math.max(MIN_GRAIN_SIZE, cost / ((long) nThreads * TASKS_PER_THREAD)));
+        return switch (strategy) {
+            case TASKS -> Layout.byDestination(graph, (int) Math.min(vertices, (cost + grain - 1) / grain), grain);
+            case BARRIER -> Layout.byDestination(graph, Math.min(vertices, nThreads), grain);
+            case PUSH -> Layout.bySource(graph, Math.min(vertices, nThreads), grain);
+            case WORK_STEALING -> Layout.byDestination(graph, 1, grain);
+        };
+    }
+
+    /**
+     * Partition layout of a graph: the vertex range of every partition
+     * and, for the pull strategies, the in-edge CSR.
+     */
+    private static final class Layout {
+
+        private final ReversedGraph byDestination;
+
+        private final int[] boundaries;
+
+        private final int grainSize;
+
+        private Layout(ReversedGraph byDestination, int[] boundaries, int grainSize) {
+            this.byDestination = byDestination;
+            this.boundaries = boundaries;
+            this.grainSize = grainSize;
+        }
+
+        /**
+         * Destination ranges with about equal numbers of in-edges.
+         */
+        static Layout byDestination(AdjacencyListGraph graph, int parallelism, int grainSize) {
+            final ReversedGraph byDestination = graph.getReversed();
+            return new Layout(byDestination, balance(byDestination.getOffsets(), parallelism), grainSize);
+        }
+
+        /**
+         * Source ranges with about equal numbers of out-edges.
+         */
+        static Layout bySource(AdjacencyListGraph graph, int parallelism, int grainSize) {
+            return new Layout(null, balance(graph.getOffsets(), parallelism), grainSize);
+        }
+
+        /**
+         * Splits the vertices into ranges of equal cost, where a vertex costs its degree plus one.
+         * The CSR offsets are the prefix sums of the degrees, so every boundary is a binary search.
+         */
+        private static int[] balance(int[] offsets, int parallelism) {
+            final int vertices = offsets.length - 1;
+            final long total = cost(offsets, vertices);
+            final int[] boundaries = new int[parallelism + 1];
+            boundaries[parallelism] = vertices;
+            for (int j = 1; j < parallelism; j++) {
+                boundaries[j] = Math.max(boundaries[j - 1], search(offsets, total * j / parallelism));
+            }
+            return boundaries;
+        }
+
+        int parallelism() {
+            return boundaries.length - 1;
+        }
+    }
+
+    /**
+     * Cost of the vertex range {@code [0, vertex)}: its edges plus its vertices.
+     */
+    static long cost(int[] offsets, int vertex) {
+        return (long) offsets[vertex] + vertex;
+    }
+
+    /**
+     * Smallest vertex whose prefix cost reaches {@code target}.
+     */
+    static int search(int[] offsets, long target) {
+        int low = 0;
+        int high = offsets.length - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (cost(offsets, mid) < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Relaxation kernel of one partition, reporting whether its last run updated any distance.
+     */
+    interface RoundTask extends Runnable {
+
+        /**
+         * Whether the last run updated any distance. Must be read after the run is joined.
+         */
+        boolean isChanged();
+
+        /**
+         * Counters of the last run. Must be read after the run is joined.
+         */
+        RelaxationCounters getCounters();
+    }
+
+    /**
+     * Progress shared by the barrier workers. Written only by the barrier action,
+     * the barrier makes the writes visible to every worker.
+     */
+    static final class RoundState {
+
+        private final int maxRounds;
+
+        private int rounds;
+
+        private boolean converged;
+
+        private long roundStart;
+
+        RoundState(int maxRounds) {
+            this.maxRounds = maxRounds;
+        }
+    }
+
+    /**
+     * Thrown by the verification kernels when a distance can still be lowered. Only this signal makes
+     * {@link #solve} look for a negative cycle, any other failure of a worker is rethrown.
+     */
+    static final class CycleDetected extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        CycleDetected() {
+            super("Graph contains negative weight cycle", null, false, false);
+        }
+    }
+
+    /**
+     * Owns one partition for a whole solve. Runs the same kernels as the tasks,
+     * separated by the barrier instead of task submission. A failing worker breaks the barrier,
+     * so the others stop with a {@link BrokenBarrierException}.
+     */
+    static class BarrierWorker implements Callable<Void> {
+
+        private final RoundTask recompute;
+
+        private final Runnable verify;
+
+        private final CyclicBarrier barrier;
+
+        private final RoundState state;
+
+        private long busyNanos;
+
+        private long waitNanos;
+
+        BarrierWorker(RoundTask recompute, Runnable verify, CyclicBarrier barrier, RoundState state) {
+            this.recompute = recompute;
+            this.verify = verify;
+            this.barrier = barrier;
+            this.state = state;
+        }
+
+        @Override
+        public Void call() throws InterruptedException, BrokenBarrierException {
+            try {
+                while (!state.converged && state.rounds < state.maxRounds) {
+                    recompute.run();
+                    final long arrival = System.nanoTime();
+                    barrier.await();
+                    busyNanos += recompute.getCounters().nanos;
+                    waitNanos += System.nanoTime() - arrival;
+                }
+                // A round without updates proves there is no negative cycle
+                if (!state.converged) {
+                    verify.run();
+                }
+                return null;
+            } catch (InterruptedException | RuntimeException e) {
+                barrier.reset();
+                throw e;
+            }
+        }
     }
 
     static class VerifyDistanceTask implements Runnable {
 
-        private final List<List<Edge>> byDestination;
+        private final ReversedGraph byDestination;
 
         private final int[] distances;
 
@@ -105,7 +548,7 @@ public class BellmanFordParallel {
 
         private final int vertexEnd;
 
-        public VerifyDistanceTask(List<List<Edge>> graph, int[] distances, int vertexBegin, int vertexEnd) {
+        public VerifyDistanceTask(ReversedGraph graph, int[] distances, int vertexBegin, int vertexEnd) {
             this.byDestination = graph;
             this.distances = distances;
             this.vertexBegin = vertexBegin;
@@ -114,23 +557,111 @@ public class BellmanFordParallel {
 
         @Override
         public void run() {
-            for (int i = vertexBegin; i < vertexEnd; i++) {
-                List<Edge> edges = byDestination.get(i);
-                for (Edge edge : edges) {
-                    int u = edge.nodeA();
-                    int v = edge.nodeB();
-                    int weight = edge.price();
-                    if (distances[u] != Integer.MAX_VALUE && distances[u] + weight < distances[v]) {
-                        throw new IllegalStateException("Graph contains negative weight cycle");
+            verify(byDestination, distances, vertexBegin, vertexEnd);
+        }
+
+        static void verify(ReversedGraph byDestination, int[] distances, int vertexBegin, int vertexEnd) {
+            final int[] offsets = byDestination.getOffsets();
+            final int[] sources = byDestination.getSources();
+            final int[] weights = byDestination.getWeights();
+            for (int v = vertexBegin; v < vertexEnd; v++) {
+                for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                    int u = sources[j];
+                    int weight = weights[j];
+                    if (distances[u] != Integer.MAX_VALUE && IntDistances.add(distances[u], weight) < distances[v]) {
+                        throw new CycleDetected();
                     }
                 }
             }
         }
     }
 
-    static class RecomputeDistanceTask implements Runnable {
+    static class RecomputeDistanceTask implements RoundTask {
+
+        private final ReversedGraph byDestination;
+
+        private final int[] distances;
+
+        private final int vertexBegin;
+
+        private final int vertexEnd;
+
+        private final RelaxationCounters counters = new RelaxationCounters();
+
+        private boolean changed;
+
+        public RecomputeDistanceTask(ReversedGraph graph, int[] distances, int vertexBegin, int vertexEnd) {
+            this.byDestination = graph;
+            this.distances = distances;
+            this.vertexBegin = vertexBegin;
+            this.vertexEnd = vertexEnd;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            counters.clear();
+            changed = relax(byDestination, distances, vertexBegin, vertexEnd, counters);
+            counters.nanos = System.nanoTime() - start;
+        }
+
+        /**
+         * Relaxes the in-edges of the destination range and adds its counts to {@code counters}.
+         * @return {@code true} if any distance was updated.
+         */
+        static boolean relax(ReversedGraph byDestination, int[] distances, int vertexBegin, int vertexEnd,
+                             RelaxationCounters counters) {
+            final int[] offsets = byDestination.getOffsets();
+            final int[] sources = byDestination.getSources();
+            final int[] weights = byDestination.getWeights();
+            long attempted = 0;
+            long successful = 0;
+            long active = 0;
+            for (int v = vertexBegin; v < vertexEnd; v++) {
+                final int current = distances[v];
+                int dv = current;
+                for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+                    int du = distances[sources[j]];
+                    if (du != Integer.MAX_VALUE) {
+                        attempted++;
+                        final int candidate = IntDistances.add(du, weights[j]);
+                        if (candidate < dv) {
+                            dv = candidate;
+                            successful++;
+                        }
+                    }
+                }
+                if (dv != current) {
+                    distances[v] = dv;
+                    active++;
+                }
+            }
+            counters.attempted += attempted;
+            counters.successful += successful;
+            counters.active += active;
+            return active > 0;
+        }
+
+        @Override
+        public boolean isChanged() {
+            return changed;
+        }
+
+        @Override
+        public RelaxationCounters getCounters() {
+            return counters;
+        }
+    }
+
+    /**
+     * Relaxes (or verifies) a destination range, splitting it in halves of equal cost
+     * until a half holds at most {@code grainSize} in-edges.
+     */
+    static class RecursiveDistanceTask extends RecursiveTask<RelaxationCounters> {
 
-        private final List<List<Edge>> byDestination;
+        private static final long serialVersionUID = 1L;
+
+        private final ReversedGraph byDestination;
 
         private final int[] distances;
 
@@ -138,26 +669,144 @@ public class BellmanFordParallel {
 
         private final int vertexEnd;
 
-        public RecomputeDistanceTask(List<List<Edge>> graph, int[] distances, int vertexBegin, int vertexEnd) {
+        private final int grainSize;
+
+        private final boolean verify;
+
+        RecursiveDistanceTask(ReversedGraph graph, int[] distances, int vertexBegin, int vertexEnd, int grainSize,
+                              boolean verify) {
             this.byDestination = graph;
             this.distances = distances;
             this.vertexBegin = vertexBegin;
             this.vertexEnd = vertexEnd;
+            this.grainSize = grainSize;
+            this.verify = verify;
+        }
+
+        @Override
+        protected RelaxationCounters compute() {
+            final int[] offsets = byDestination.getOffsets();
+            final long rangeCost = cost(offsets, vertexEnd) - cost(offsets, vertexBegin);
+            if (rangeCost <= grainSize || vertexEnd - vertexBegin == 1) {
+                final RelaxationCounters counters = new RelaxationCounters();
+                if (verify) {
+                    VerifyDistanceTask.verify(byDestination, distances, vertexBegin, vertexEnd);
+                } else {
+                    RecomputeDistanceTask.relax(byDestination, distances, vertexBegin, vertexEnd, counters);
+                }
+                return counters;
+            }
+            final int middle = Math.min(vertexEnd - 1, Math.max(vertexBegin + 1,
+                    search(offsets, cost(offsets, vertexBegin) + rangeCost / 2)));
+            final RecursiveDistanceTask left = new RecursiveDistanceTask(byDestination, distances, vertexBegin,
+                    middle, grainSize, verify);
+            final RecursiveDistanceTask right = new RecursiveDistanceTask(byDestination, distances, middle,
+                    vertexEnd, grainSize, verify);
+            left.fork();
+            final RelaxationCounters rightCounters = right.compute();
+            return left.join().add(rightCounters);
+        }
+    }
+
+    static class VerifyPushDistanceTask implements Runnable {
+
+        private final AdjacencyListGraph graph;
+
+        private final int[] distances;
+
+        private final int vertexBegin;
+
+        private final int vertexEnd;
+
+        public VerifyPushDistanceTask(AdjacencyListGraph graph, int[] distances, int vertexBegin, int vertexEnd) {
+            this.graph = graph;
+            this.distances = distances;
+            this.vertexBegin = vertexBegin;
+            this.vertexEnd = vertexEnd;
         }
 
         @Override
         public void run() {
-            for (int i = vertexBegin; i < vertexEnd; i++) {
-                List<Edge> edges = byDestination.get(i);
-                for (Edge edge : edges) {
-                    int u = edge.nodeA();
-                    int v = edge.nodeB();
-                    int weight = edge.price();
-                    if (distances[u] != Integer.MAX_VALUE && distances[u] + weight < distances[v]) {
-                        distances[v] = distances[u] + weight;
+            final int[] offsets = graph.getOffsets();
+            final int[] targets = graph.getTargets();
+            final int[] weights = graph.getWeights();
+            for (int u = vertexBegin; u < vertexEnd; u++) {
+                final int du = distances[u];
+                if (du == Integer.MAX_VALUE) {
+                    continue;
+                }
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    if (IntDistances.add(du, weights[j]) < distances[targets[j]]) {
+                        throw new CycleDetected();
                     }
                 }
             }
         }
     }
+
+    /**
+     * Relaxes the out-edges of a source range. Destinations are shared with other partitions,
+     * so the distances are lowered with compare-and-set.
+     */
+    static class PushDistanceTask implements RoundTask {
+
+        private final AdjacencyListGraph graph;
+
+        private final int[] distances;
+
+        private final int vertexBegin;
+
+        private final int vertexEnd;
+
+        private final RelaxationCounters counters = new RelaxationCounters();
+
+        private boolean changed;
+
+        public PushDistanceTask(AdjacencyListGraph graph, int[] distances, int vertexBegin, int vertexEnd) {
+            this.graph = graph;
+            this.distances = distances;
+            this.vertexBegin = vertexBegin;
+            this.vertexEnd = vertexEnd;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            final int[] offsets = graph.getOffsets();
+            final int[] targets = graph.getTargets();
+            final int[] weights = graph.getWeights();
+            long attempted = 0;
+            long successful = 0;
+            for (int u = vertexBegin; u < vertexEnd; u++) {
+                final int du = AtomicDistances.get(distances, u);
+                if (du == Integer.MAX_VALUE) {
+                    continue;
+                }
+                attempted += offsets[u + 1] - offsets[u];
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    final int v = targets[j];
+                    final int candidate = IntDistances.add(du, weights[j]);
+                    // Plain read first, so settled destinations cost no atomic operation
+                    if (candidate < distances[v] && AtomicDistances.lower(distances, v, candidate)) {
+                        successful++;
+                    }
+                }
+            }
+            changed = successful > 0;
+            counters.attempted = attempted;
+            counters.successful = successful;
+            counters.active = successful;
+            counters.nanos = System.nanoTime() - start;
+        }
+
+        @Override
+        public boolean isChanged() {
+            return changed;
+        }
+
+        @Override
+        public RelaxationCounters getCounters() {
+            return counters;
+        }
+    }
 }
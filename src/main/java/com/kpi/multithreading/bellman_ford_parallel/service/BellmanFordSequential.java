@@ -1,38 +1,72 @@
 package com.kpi.multithreading.bellman_ford_parallel.service;
 
 import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
 
-public class BellmanFordSequential {
+public class BellmanFordSequential implements ShortestPathSolver {
 
-    public int[] solve(AdjacencyListGraph graph, int source) {
+    /**
+     * Runs at most {@code vertices - 1} rounds and stops after the first round without updates.
+     * The distances are updated in place, so a node lowered twice in a round counts twice as active.
+     */
+    @Override
+    public ShortestPathResult solve(AdjacencyListGraph graph, int source, SolverListener listener) {
         final int vertices = graph.getVerticesNumber();
-        final int edges = graph.getEdgesNumber();
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final int[] weights = graph.getWeights();
         final int[] distances = new int[vertices];
         for (int i = 0; i < vertices; i++) {
             distances[i] = Integer.MAX_VALUE;
         }
         distances[source] = 0;
 
-        for (int i = 1; i < vertices; i++) {
-            for (int j = 0; j < edges; j++) {
-                int u = graph.getEdge(j).nodeA();
-                int v = graph.getEdge(j).nodeB();
-                int weight = graph.getEdge(j).price();
-                if (distances[u] != Integer.MAX_VALUE && distances[u] + weight < distances[v]) {
-                    distances[v] = distances[u] + weight;
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < vertices - 1) {
+            rounds++;
+            final long roundStart = System.nanoTime();
+            long attempted = 0;
+            long successful = 0;
+            for (int u = 0; u < vertices; u++) {
+                final int du = distances[u];
+                if (du == Integer.MAX_VALUE) {
+                    continue;
+                }
+                attempted += offsets[u + 1] - offsets[u];
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    int v = targets[j];
+                    int weight = weights[j];
+                    final int candidate = IntDistances.add(du, weight);
+                    if (candidate < distances[v]) {
+                        distances[v] = candidate;
+                        successful++;
+                    }
                 }
             }
+            changed = successful > 0;
+            listener.roundCompleted(new RoundMetrics(rounds, System.nanoTime() - roundStart, attempted, successful,
+                    successful));
+        }
+
+        // A round without updates proves there is no negative cycle
+        if (!changed) {
+            return new ShortestPathResult(source, distances, rounds);
         }
 
-        for (int j = 0; j < edges; j++) {
-            int u = graph.getEdge(j).nodeA();
-            int v = graph.getEdge(j).nodeB();
-            int weight = graph.getEdge(j).price();
-            if (distances[u] != Integer.MAX_VALUE && distances[u] + weight < distances[v]) {
-                throw new IllegalStateException("Graph contains negative weight cycle");
+        for (int u = 0; u < vertices; u++) {
+            final int du = distances[u];
+            if (du == Integer.MAX_VALUE) {
+                continue;
+            }
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                if (IntDistances.add(du, weights[j]) < distances[targets[j]]) {
+                    throw NegativeCycleFinder.exception(graph, source);
+                }
             }
         }
 
-        return distances;
+        return new ShortestPathResult(source, distances, rounds);
     }
 }
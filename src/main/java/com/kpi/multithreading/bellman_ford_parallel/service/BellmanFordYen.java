@@ -0,0 +1,152 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Sequential Bellman-Ford with Yen's improvement. Every round is a forward pass over the edges {@code u -> v}
+ * with {@code u <= v} by ascending {@code u}, then a backward pass over the edges with {@code u > v} by descending
+ * {@code u}, so a distance lowered in a pass is propagated further in the same pass. A shortest path then needs
+ * a round per change of direction instead of a round per edge.
+ * <p>
+ * A vertex is scanned in a pass only if its distance was lowered since its last scan in that pass.
+ */
+public class BellmanFordYen implements ShortestPathSolver {
+
+    private static final int INFINITY = ShortestPathResult.INFINITY;
+
+    private final Map<AdjacencyListGraph, Layout> layouts = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Runs at most {@code vertices - 1} rounds and stops after the first round without updates.
+     * The layout splitting the rows into both directions is built on the first solve of a graph.
+     * A node lowered in both passes of a round counts twice as active.
+     */
+    @Override
+    public ShortestPathResult solve(AdjacencyListGraph graph, int source, SolverListener listener) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] distances = new int[vertices];
+        for (int i = 0; i < vertices; i++) {
+            distances[i] = INFINITY;
+        }
+        distances[source] = 0;
+
+        final long transformStart = System.nanoTime();
+        final Layout layout = layouts.computeIfAbsent(graph, Layout::new);
+        listener.graphTransformed(System.nanoTime() - transformStart);
+        final int[] offsets = layout.offsets;
+        final int[] split = layout.split;
+        final int[] targets = layout.targets;
+        final int[] weights = layout.weights;
+
+        // Vertices lowered since their last scan in the forward and in the backward pass
+        final boolean[] forward = new boolean[vertices];
+        final boolean[] backward = new boolean[vertices];
+        forward[source] = true;
+        backward[source] = true;
+
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < vertices - 1) {
+            rounds++;
+            final long roundStart = System.nanoTime();
+            long attempted = 0;
+            long successful = 0;
+            for (int u = 0; u < vertices; u++) {
+                if (!forward[u]) {
+                    continue;
+                }
+                forward[u] = false;
+                final int du = distances[u];
+                attempted += split[u] - offsets[u];
+                for (int j = offsets[u]; j < split[u]; j++) {
+                    final int v = targets[j];
+                    final int candidate = IntDistances.add(du, weights[j]);
+                    if (candidate < distances[v]) {
+                        distances[v] = candidate;
+                        forward[v] = true;
+                        backward[v] = true;
+                        successful++;
+                    }
+                }
+            }
+            for (int u = vertices - 1; u >= 0; u--) {
+                if (!backward[u]) {
+                    continue;
+                }
+                backward[u] = false;
+                final int du = distances[u];
+                attempted += offsets[u + 1] - split[u];
+                for (int j = split[u]; j < offsets[u + 1]; j++) {
+                    final int v = targets[j];
+                    final int candidate = IntDistances.add(du, weights[j]);
+                    if (candidate < distances[v]) {
+                        distances[v] = candidate;
+                        forward[v] = true;
+                        backward[v] = true;
+                        successful++;
+                    }
+                }
+            }
+            changed = successful > 0;
+            listener.roundCompleted(new RoundMetrics(rounds, System.nanoTime() - roundStart, attempted, successful,
+                    successful));
+        }
+
+        // A round without updates proves there is no negative cycle
+        if (changed) {
+            for (int u = 0; u < vertices; u++) {
+                final int du = distances[u];
+                if (du == INFINITY) {
+                    continue;
+                }
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    if (IntDistances.add(du, weights[j]) < distances[targets[j]]) {
+                        throw NegativeCycleFinder.exception(graph, source);
+                    }
+                }
+            }
+        }
+        return new ShortestPathResult(source, distances, rounds);
+    }
+
+    /**
+     * Copy of the CSR with every row partitioned: the edges to {@code v >= u} first, then the edges to {@code v < u}.
+     */
+    private static final class Layout {
+
+        private final int[] offsets;
+
+        // First backward edge of every row
+        private final int[] split;
+
+        private final int[] targets;
+
+        private final int[] weights;
+
+        private Layout(AdjacencyListGraph graph) {
+            final int vertices = graph.getVerticesNumber();
+            final int[] graphTargets = graph.getTargets();
+            final int[] graphWeights = graph.getWeights();
+            this.offsets = graph.getOffsets();
+            this.split = new int[vertices];
+            this.targets = new int[graph.getEdgesNumber()];
+            this.weights = new int[graph.getEdgesNumber()];
+            for (int u = 0; u < vertices; u++) {
+                int front = offsets[u];
+                int back = offsets[u + 1];
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    final int slot = graphTargets[j] >= u ? front++ : --back;
+                    targets[slot] = graphTargets[j];
+                    weights[slot] = graphWeights[j];
+                }
+                split[u] = front;
+            }
+        }
+    }
+}
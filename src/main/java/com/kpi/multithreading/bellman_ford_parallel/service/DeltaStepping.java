@@ -0,0 +1,325 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.WorkerMetrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delta-stepping for graphs without negative weights. Vertices are kept in buckets of distance width
+ * {@code delta} and the lowest non-empty bucket is relaxed in parallel, repeatedly until it stays empty,
+ * so only vertices close to their final distance are scanned instead of all edges every round.
+ * <p>
+ * Every worker owns its buckets, so insertions need no locks. Distances are lowered with compare-and-set and
+ * the frontier is claimed in chunks through an atomic cursor. Only the buckets within the largest weight of the
+ * current one can be non-empty, so they are kept in a ring of {@code maxWeight / delta + 2} buckets.
+ * Paths longer than {@link Integer#MAX_VALUE} are not followed, their ends stay unreachable.
+ */
+public class DeltaStepping implements ShortestPathSolver {
+
+    /**
+     * Picks the bucket width from the weights: the largest weight divided by the average out-degree.
+     */
+    public static final int AUTO_DELTA = 0;
+
+    /**
+     * Largest number of buckets of the ring, a too small delta is raised to keep it.
+     */
+    static final int MAX_BUCKETS = 1 << 16;
+
+    /**
+     * Frontiers smaller than this are relaxed on the calling thread.
+     */
+    private static final int MIN_PARALLEL_FRONTIER = 256;
+
+    /**
+     * Frontier vertices claimed by a worker at a time.
+     */
+    private static final int CHUNK_SIZE = 64;
+
+    private final int nThreads;
+
+    private final int delta;
+
+    private final ExecutorService threadPool;
+
+    public DeltaStepping(int nThreads) {
+        this(nThreads, AUTO_DELTA);
+    }
+
+    /**
+     * @param nThreads number of threads, one runs on the calling thread without a pool.
+     * @param delta bucket width, or {@link #AUTO_DELTA}.
+     */
+    public DeltaStepping(int nThreads, int delta) {
+        if (nThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        if (delta < 0) {
+            throw new IllegalArgumentException("Delta must not be negative");
+        }
+        this.nThreads = nThreads;
+        this.delta = delta;
+        this.threadPool = nThreads == 1 ? null
+                : Executors.newFixedThreadPool(nThreads, new SolverThreadFactory("delta-stepping"));
+    }
+
+    /**
+     * Whether the graph has no negative weights, so delta-stepping can solve it.
+     */
+    public static boolean supports(AdjacencyListGraph graph) {
+        for (int weight : graph.getWeights()) {
+            if (weight < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bucket width used for the graph.
+     * @param requested requested width, or {@link #AUTO_DELTA}.
+     */
+    static int delta(AdjacencyListGraph graph, int requested) {
+        long maxWeight = 0;
+        for (int weight : graph.getWeights()) {
+            maxWeight = Math.max(maxWeight, weight);
+        }
+        long width = requested;
+        if (requested == AUTO_DELTA) {
+            width = maxWeight * graph.getVerticesNumber() / Math.max(1, graph.getEdgesNumber());
+        }
+        width = Math.max(width, (maxWeight + MAX_BUCKETS - 3) / (MAX_BUCKETS - 2));
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, width));
+    }
+
+    /**
+     * Reports every relaxation of a bucket as a round, with the size of the next frontier as active vertices.
+     * @throws IllegalArgumentException if the graph has a negative weight.
+     */
+    @Override
+    public ShortestPathResult solve(AdjacencyListGraph graph, int source, SolverListener listener) {
+        if (!supports(graph)) {
+            throw new IllegalArgumentException("Delta-stepping needs non-negative weights");
+        }
+        final int vertices = graph.getVerticesNumber();
+        final int width = delta(graph, delta);
+        int maxWeight = 0;
+        for (int weight : graph.getWeights()) {
+            maxWeight = Math.max(maxWeight, weight);
+        }
+        final int ring = maxWeight / width + 2;
+
+        final int[] distances = new int[vertices];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        distances[source] = 0;
+
+        final AtomicInteger cursor = new AtomicInteger();
+        final Worker[] workers = new Worker[nThreads];
+        for (int j = 0; j < nThreads; j++) {
+            workers[j] = new Worker(graph, distances, width, ring, cursor);
+        }
+        final long[] busyNanos = new long[nThreads];
+        final long[] waitNanos = new long[nThreads];
+        final boolean[] queued = new boolean[vertices];
+        int[] frontier = {source};
+        int frontierSize = 1;
+        long bucket = 0;
+        int rounds = 0;
+        int maxWorkers = 1;
+
+        while (true) {
+            rounds++;
+            final long roundStart = System.nanoTime();
+            final int active = threadPool == null || frontierSize < MIN_PARALLEL_FRONTIER ? 1 : nThreads;
+            cursor.set(0);
+            for (int j = 0; j < active; j++) {
+                workers[j].prepare(frontier, frontierSize);
+            }
+            if (active == 1) {
+                workers[0].call();
+            } else {
+                invokeAll(Arrays.asList(workers));
+            }
+            final long roundNanos = System.nanoTime() - roundStart;
+            final RelaxationCounters total = new RelaxationCounters();
+            for (int j = 0; j < active; j++) {
+                total.add(workers[j].counters);
+                busyNanos[j] += workers[j].counters.nanos;
+                waitNanos[j] += Math.max(0, roundNanos - workers[j].counters.nanos);
+            }
+            maxWorkers = Math.max(maxWorkers, active);
+
+            // Lowest non-empty bucket, the current one if the round refilled it
+            long next = -1;
+            for (long b = bucket; b < bucket + ring && next < 0; b++) {
+                for (Worker worker : workers) {
+                    if (worker.sizes[(int) (b % ring)] > 0) {
+                        next = b;
+                        break;
+                    }
+                }
+            }
+            if (next < 0) {
+                listener.roundCompleted(total.toRound(rounds, roundNanos));
+                break;
+            }
+
+            // Merges the bucket of every worker, dropping duplicates and vertices lowered into an earlier bucket
+            final int slot = (int) (next % ring);
+            int size = 0;
+            for (Worker worker : workers) {
+                size += worker.sizes[slot];
+            }
+            if (frontier.length < size) {
+                frontier = new int[size];
+            }
+            frontierSize = 0;
+            for (Worker worker : workers) {
+                final int[] entries = worker.buckets[slot];
+                for (int i = 0; i < worker.sizes[slot]; i++) {
+                    final int v = entries[i];
+                    if (!queued[v] && distances[v] / width == next) {
+                        queued[v] = true;
+                        frontier[frontierSize++] = v;
+                    }
+                }
+                worker.sizes[slot] = 0;
+            }
+            for (int i = 0; i < frontierSize; i++) {
+                queued[frontier[i]] = false;
+            }
+            bucket = next;
+            total.active = frontierSize;
+            listener.roundCompleted(total.toRound(rounds, roundNanos));
+        }
+        if (threadPool != null) {
+            for (int j = 0; j < maxWorkers; j++) {
+                listener.workerCompleted(new WorkerMetrics(j, busyNanos[j], waitNanos[j]));
+            }
+        }
+
+        return new ShortestPathResult(source, distances, rounds);
+    }
+
+    private void invokeAll(List<Worker> tasks) {
+        try {
+            for (Future<Void> result : threadPool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Shuts down the thread pool.
+     */
+    @Override
+    public void close() {
+        if (threadPool != null) {
+            threadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Relaxes chunks of the frontier and files the lowered vertices into its own ring of buckets.
+     */
+    static class Worker implements Callable<Void> {
+
+        private final int[] offsets;
+
+        private final int[] targets;
+
+        private final int[] weights;
+
+        private final int[] distances;
+
+        private final int width;
+
+        private final AtomicInteger cursor;
+
+        // Ring of buckets, allocated on first use
+        private final int[][] buckets;
+
+        private final int[] sizes;
+
+        private final RelaxationCounters counters = new RelaxationCounters();
+
+        private int[] frontier;
+
+        private int frontierSize;
+
+        Worker(AdjacencyListGraph graph, int[] distances, int width, int ring, AtomicInteger cursor) {
+            this.offsets = graph.getOffsets();
+            this.targets = graph.getTargets();
+            this.weights = graph.getWeights();
+            this.distances = distances;
+            this.width = width;
+            this.cursor = cursor;
+            this.buckets = new int[ring][];
+            this.sizes = new int[ring];
+        }
+
+        void prepare(int[] frontier, int frontierSize) {
+            this.frontier = frontier;
+            this.frontierSize = frontierSize;
+            counters.clear();
+        }
+
+        /**
+         * Relaxes chunks until the frontier is exhausted.
+         */
+        @Override
+        public Void call() {
+            final long start = System.nanoTime();
+            final int ring = sizes.length;
+            long attempted = 0;
+            long successful = 0;
+            int begin;
+            while ((begin = cursor.getAndAdd(CHUNK_SIZE)) < frontierSize) {
+                final int end = Math.min(frontierSize, begin + CHUNK_SIZE);
+                for (int i = begin; i < end; i++) {
+                    final int u = frontier[i];
+                    final int du = AtomicDistances.get(distances, u);
+                    attempted += offsets[u + 1] - offsets[u];
+                    for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                        final int v = targets[j];
+                        final int candidate = IntDistances.add(du, weights[j]);
+                        if (AtomicDistances.lower(distances, v, candidate)) {
+                            successful++;
+                            add((candidate / width) % ring, v);
+                        }
+                    }
+                }
+            }
+            counters.attempted = attempted;
+            counters.successful = successful;
+            counters.nanos = System.nanoTime() - start;
+            return null;
+        }
+
+        private void add(int slot, int v) {
+            int[] bucket = buckets[slot];
+            if (bucket == null) {
+                bucket = new int[16];
+                buckets[slot] = bucket;
+            } else if (sizes[slot] == bucket.length) {
+                bucket = Arrays.copyOf(bucket, bucket.length * 2);
+                buckets[slot] = bucket;
+            }
+            bucket[sizes[slot]++] = v;
+        }
+    }
+}
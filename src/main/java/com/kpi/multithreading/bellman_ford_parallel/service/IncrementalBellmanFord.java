@@ -0,0 +1,304 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.DynamicGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.Edge;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-source shortest paths of a {@link DynamicGraph}, repaired after every batch of edge updates
+ * instead of being solved again from scratch.
+ * <p>
+ * A weight increase on a shortest-path tree edge invalidates the subtree below it. Invalidated vertices are
+ * seeded from their in-edges coming from valid vertices, the targets of decreased and inserted edges are
+ * seeded with the new candidates, and a worklist relaxation propagates from the seeds only.
+ * Negative cycles are detected by checking the predecessor graph for a cycle after every {@code vertices}
+ * relaxations, which is sound because a reachable negative cycle eventually stays in the predecessor graph.
+ */
+public class IncrementalBellmanFord {
+
+    private static final int NONE = -1;
+
+    private final DynamicGraph graph;
+
+    private final int source;
+
+    private final int vertices;
+
+    private final int[] distances;
+
+    private final int[] predecessors;
+
+    private final int[] predecessorEdges;
+
+    // Circular worklist, every vertex is queued at most once at a time
+    private final int[] queue;
+
+    private final boolean[] queued;
+
+    private final boolean[] invalid;
+
+    private int head;
+
+    private int size;
+
+    private boolean consistent;
+
+    /**
+     * Solves the graph from scratch.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     */
+    public IncrementalBellmanFord(DynamicGraph graph, int source) {
+        if (source < 0 || source >= graph.getVerticesNumber()) {
+            throw new IllegalArgumentException("Node " + source + " does not exist");
+        }
+        this.graph = graph;
+        this.source = source;
+        this.vertices = graph.getVerticesNumber();
+        this.distances = new int[vertices];
+        this.predecessors = new int[vertices];
+        this.predecessorEdges = new int[vertices];
+        this.queue = new int[vertices];
+        this.queued = new boolean[vertices];
+        this.invalid = new boolean[vertices];
+        recompute();
+    }
+
+    /**
+     * Solves the current graph from scratch, e.g. after a negative cycle was removed.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     */
+    public void recompute() {
+        consistent = false;
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Arrays.fill(predecessors, NONE);
+        Arrays.fill(predecessorEdges, NONE);
+        Arrays.fill(queued, false);
+        head = 0;
+        size = 0;
+        distances[source] = 0;
+        enqueue(source);
+        relax();
+        consistent = true;
+    }
+
+    /**
+     * Applies a batch of updates to the graph and repairs the distances and the shortest-path tree.
+     * An update sets the weight of the first edge from {@link Edge#nodeA()} to {@link Edge#nodeB()},
+     * or inserts the edge if there is none.
+     * If the previous repair found a negative cycle, the graph is solved from scratch instead.
+     * @param updates edges with their new weights.
+     * @return number of vertices which were re-relaxed.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     * The updates stay applied, and the distances are not valid until a later repair succeeds.
+     */
+    public int update(List<Edge> updates) {
+        final int[] decreased = new int[updates.size()];
+        int decreasedSize = 0;
+        final int[] roots = new int[updates.size()];
+        int rootsSize = 0;
+        for (Edge update : updates) {
+            int edge = graph.findEdge(update.nodeA(), update.nodeB());
+            if (edge == NONE) {
+                decreased[decreasedSize++] = graph.addEdge(update.nodeA(), update.nodeB(), update.price());
+                continue;
+            }
+            final int previous = graph.getWeight(edge);
+            graph.setWeight(edge, update.price());
+            if (update.price() < previous) {
+                decreased[decreasedSize++] = edge;
+            } else if (update.price() > previous && predecessorEdges[update.nodeB()] == edge) {
+                roots[rootsSize++] = update.nodeB();
+            }
+        }
+        if (!consistent) {
+            recompute();
+            return vertices;
+        }
+        consistent = false;
+
+        int relaxed = invalidate(roots, rootsSize);
+
+        for (int i = 0; i < decreasedSize; i++) {
+            final int edge = decreased[i];
+            final int u = graph.getSource(edge);
+            final int v = graph.getTarget(edge);
+            final int du = distances[u];
+            if (du != Integer.MAX_VALUE && IntDistances.add(du, graph.getWeight(edge)) < distances[v]) {
+                lower(v, IntDistances.add(du, graph.getWeight(edge)), u, edge);
+            }
+        }
+        relaxed += relax();
+        consistent = true;
+        return relaxed;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getDistance(int vertex) {
+        return distances[vertex];
+    }
+
+    /**
+     * Predecessor of the vertex in the shortest-path tree, {@code -1} for the source and unreachable vertices.
+     */
+    public int getPredecessor(int vertex) {
+        return predecessors[vertex];
+    }
+
+    /**
+     * Id of the shortest-path tree edge into the vertex, {@code -1} for the source and unreachable vertices.
+     */
+    public int getPredecessorEdge(int vertex) {
+        return predecessorEdges[vertex];
+    }
+
+    /**
+     * Copy of the current distances.
+     * @throws IllegalStateException if the last repair found a negative cycle.
+     */
+    public ShortestPathResult getResult() {
+        if (!consistent) {
+            throw new IllegalStateException("Graph contains negative weight cycle");
+        }
+        return new ShortestPathResult(source, distances.clone(), 0);
+    }
+
+    /**
+     * Resets the subtrees below the roots and seeds every reset vertex from its in-edges
+     * coming from vertices outside of the subtrees.
+     * @return number of reset vertices.
+     */
+    private int invalidate(int[] roots, int rootsSize) {
+        if (rootsSize == 0) {
+            return 0;
+        }
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        int[] subtree = new int[Math.max(16, rootsSize)];
+        int subtreeSize = 0;
+        for (int i = 0; i < rootsSize; i++) {
+            if (!invalid[roots[i]]) {
+                invalid[roots[i]] = true;
+                if (subtreeSize == subtree.length) {
+                    subtree = Arrays.copyOf(subtree, subtreeSize * 2);
+                }
+                subtree[subtreeSize++] = roots[i];
+            }
+        }
+        // The subtree array doubles as the traversal queue, children are the targets of their tree edges
+        for (int i = 0; i < subtreeSize; i++) {
+            final int u = subtree[i];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (predecessorEdges[targets[e]] == e && !invalid[targets[e]]) {
+                    invalid[targets[e]] = true;
+                    if (subtreeSize == subtree.length) {
+                        subtree = Arrays.copyOf(subtree, subtreeSize * 2);
+                    }
+                    subtree[subtreeSize++] = targets[e];
+                }
+            }
+            for (int e = graph.getInsertedOut(u); e != NONE; e = graph.getNextInsertedOut(e)) {
+                final int v = graph.getTarget(e);
+                if (predecessorEdges[v] == e && !invalid[v]) {
+                    invalid[v] = true;
+                    if (subtreeSize == subtree.length) {
+                        subtree = Arrays.copyOf(subtree, subtreeSize * 2);
+                    }
+                    subtree[subtreeSize++] = v;
+                }
+            }
+        }
+        for (int i = 0; i < subtreeSize; i++) {
+            final int v = subtree[i];
+            distances[v] = Integer.MAX_VALUE;
+            predecessors[v] = NONE;
+            predecessorEdges[v] = NONE;
+        }
+
+        final int[] inOffsets = graph.getInOffsets();
+        final int[] inSources = graph.getInSources();
+        final int[] inEdges = graph.getInEdges();
+        final int[] weights = graph.getWeights();
+        for (int i = 0; i < subtreeSize; i++) {
+            final int v = subtree[i];
+            invalid[v] = false;
+            for (int j = inOffsets[v]; j < inOffsets[v + 1]; j++) {
+                final int du = distances[inSources[j]];
+                if (du != Integer.MAX_VALUE && IntDistances.add(du, weights[inEdges[j]]) < distances[v]) {
+                    lower(v, IntDistances.add(du, weights[inEdges[j]]), inSources[j], inEdges[j]);
+                }
+            }
+            for (int e = graph.getInsertedIn(v); e != NONE; e = graph.getNextInsertedIn(e)) {
+                final int u = graph.getSource(e);
+                final int du = distances[u];
+                if (du != Integer.MAX_VALUE && IntDistances.add(du, graph.getWeight(e)) < distances[v]) {
+                    lower(v, IntDistances.add(du, graph.getWeight(e)), u, e);
+                }
+            }
+        }
+        return subtreeSize;
+    }
+
+    /**
+     * Worklist relaxation from the queued vertices.
+     * @return number of dequeued vertices.
+     */
+    private int relax() {
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final int[] weights = graph.getWeights();
+        int dequeued = 0;
+        long sinceCheck = 0;
+        while (size > 0) {
+            final int u = queue[head];
+            head = head + 1 == vertices ? 0 : head + 1;
+            size--;
+            queued[u] = false;
+            dequeued++;
+            final int du = distances[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                final int candidate = IntDistances.add(du, weights[e]);
+                if (candidate < distances[targets[e]]) {
+                    lower(targets[e], candidate, u, e);
+                    sinceCheck++;
+                }
+            }
+            for (int e = graph.getInsertedOut(u); e != NONE; e = graph.getNextInsertedOut(e)) {
+                final int candidate = IntDistances.add(du, graph.getWeight(e));
+                if (candidate < distances[graph.getTarget(e)]) {
+                    lower(graph.getTarget(e), candidate, u, e);
+                    sinceCheck++;
+                }
+            }
+            if (sinceCheck >= vertices) {
+                sinceCheck = 0;
+                final int[] cycle = NegativeCycleFinder.cycleOf(predecessors);
+                if (cycle != null) {
+                    throw new NegativeCycleException(cycle);
+                }
+            }
+        }
+        return dequeued;
+    }
+
+    private void lower(int v, int distance, int u, int edge) {
+        distances[v] = distance;
+        predecessors[v] = u;
+        predecessorEdges[v] = edge;
+        enqueue(v);
+    }
+
+    private void enqueue(int v) {
+        if (!queued[v]) {
+            queued[v] = true;
+            final int tail = head + size;
+            queue[tail >= vertices ? tail - vertices : tail] = v;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+
+/**
+ * Path arithmetic of the solvers with {@code int} distances. Every relaxation adds through {@link #add}, so a path
+ * of {@link ShortestPathResult#INFINITY} or longer leaves its destination unreachable instead of wrapping around
+ * to a short negative distance, and a path below {@link Integer#MIN_VALUE} stays at that value. Graphs whose paths
+ * may leave this range need the long distances of {@link BellmanFordLong}.
+ */
+final class IntDistances {
+
+    private IntDistances() {
+    }
+
+    /**
+     * @return {@code distance + weight}, saturated to the range of {@code int}.
+     */
+    static int add(int distance, int weight) {
+        final long sum = (long) distance + weight;
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(ShortestPathResult.INFINITY, sum));
+    }
+}
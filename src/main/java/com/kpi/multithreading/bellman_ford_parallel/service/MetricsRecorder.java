@@ -0,0 +1,56 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.SolverMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.WorkerMetrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Listener collecting the events of a solve into {@link SolverMetrics}.
+ */
+public class MetricsRecorder implements SolverListener {
+
+    private long loadNanos;
+
+    private long transformNanos;
+
+    private long solveNanos;
+
+    private final List<RoundMetrics> rounds = new ArrayList<>();
+
+    private final List<WorkerMetrics> workers = new ArrayList<>();
+
+    @Override
+    public synchronized void graphLoaded(long nanos) {
+        loadNanos += nanos;
+    }
+
+    @Override
+    public synchronized void graphTransformed(long nanos) {
+        transformNanos += nanos;
+    }
+
+    @Override
+    public synchronized void roundCompleted(RoundMetrics round) {
+        rounds.add(round);
+    }
+
+    @Override
+    public synchronized void workerCompleted(WorkerMetrics worker) {
+        workers.add(worker);
+    }
+
+    @Override
+    public synchronized void solveCompleted(long nanos) {
+        solveNanos += nanos;
+    }
+
+    public synchronized SolverMetrics getMetrics() {
+        final List<WorkerMetrics> sorted = new ArrayList<>(workers);
+        sorted.sort(Comparator.comparingInt(WorkerMetrics::getWorker));
+        return new SolverMetrics(loadNanos, transformNanos, solveNanos, rounds, sorted);
+    }
+}
@@ -0,0 +1,23 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+/**
+ * Thrown when a negative weight cycle is reachable from the source. Carries the nodes of one such cycle.
+ */
+public class NegativeCycleException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] cycle;
+
+    /**
+     * @param cycle nodes of the cycle in edge order, the last node has an edge back to the first one.
+     */
+    public NegativeCycleException(int[] cycle) {
+        super("Graph contains negative weight cycle");
+        this.cycle = cycle;
+    }
+
+    public int[] getCycle() {
+        return cycle.clone();
+    }
+}
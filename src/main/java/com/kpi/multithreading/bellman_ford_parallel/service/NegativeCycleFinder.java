@@ -0,0 +1,189 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongWeightedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Extracts a negative cycle once a solver has detected one. It runs only on that failure path, so the solvers
+ * do not track predecessors while relaxing.
+ */
+final class NegativeCycleFinder {
+
+    private static final int NONE = -1;
+
+    private NegativeCycleFinder() {
+    }
+
+    /**
+     * Exception carrying a negative cycle reachable from the source.
+     * @throws IllegalStateException without a cycle if, against the detection of the caller, none is reachable.
+     */
+    static NegativeCycleException exception(AdjacencyListGraph graph, int source) {
+        return exception(find(graph, source));
+    }
+
+    static NegativeCycleException exception(LongWeightedGraph graph, int source) {
+        return exception(find(graph, source));
+    }
+
+    static NegativeCycleException exception(DoubleWeightedGraph graph, int source) {
+        return exception(find(graph, source));
+    }
+
+    private static NegativeCycleException exception(int[] cycle) {
+        if (cycle == null) {
+            throw new IllegalStateException("Graph contains negative weight cycle");
+        }
+        return new NegativeCycleException(cycle);
+    }
+
+    /**
+     * Worklist relaxation with predecessors, checking the predecessor graph for a cycle after every
+     * {@code vertices} relaxations. A reachable negative cycle eventually stays in the predecessor graph,
+     * and every cycle of the predecessor graph is negative.
+     * @return nodes of a negative cycle reachable from the source, or {@code null} if there is none.
+     */
+    static int[] find(AdjacencyListGraph graph, int source) {
+        return find(LongWeightedGraph.of(graph), source);
+    }
+
+    /**
+     * @see #find(AdjacencyListGraph, int)
+     */
+    static int[] find(LongWeightedGraph graph, int source) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final long[] weights = graph.getWeights();
+        final long[] distances = new long[vertices];
+        final int[] predecessors = new int[vertices];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        Arrays.fill(predecessors, NONE);
+        distances[source] = 0;
+
+        final int[] queue = new int[vertices];
+        final boolean[] queued = new boolean[vertices];
+        int head = 0;
+        int size = 1;
+        queue[0] = source;
+        queued[source] = true;
+        long sinceCheck = 0;
+        while (size > 0) {
+            final int u = queue[head];
+            head = head + 1 == vertices ? 0 : head + 1;
+            size--;
+            queued[u] = false;
+            final long du = distances[u];
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                final int v = targets[j];
+                if (du + weights[j] < distances[v]) {
+                    distances[v] = du + weights[j];
+                    predecessors[v] = u;
+                    sinceCheck++;
+                    if (!queued[v]) {
+                        queued[v] = true;
+                        final int tail = head + size;
+                        queue[tail >= vertices ? tail - vertices : tail] = v;
+                        size++;
+                    }
+                }
+            }
+            if (sinceCheck >= vertices) {
+                sinceCheck = 0;
+                final int[] cycle = cycleOf(predecessors);
+                if (cycle != null) {
+                    return cycle;
+                }
+            }
+        }
+        return cycleOf(predecessors);
+    }
+
+    /**
+     * Relaxes with the tolerance of {@link BellmanFordDouble}, so it agrees with the detection of the solver.
+     * @see #find(AdjacencyListGraph, int)
+     */
+    static int[] find(DoubleWeightedGraph graph, int source) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final double[] weights = graph.getWeights();
+        final double[] distances = new double[vertices];
+        final int[] predecessors = new int[vertices];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(predecessors, NONE);
+        distances[source] = 0;
+
+        final int[] queue = new int[vertices];
+        final boolean[] queued = new boolean[vertices];
+        int head = 0;
+        int size = 1;
+        queue[0] = source;
+        queued[source] = true;
+        long sinceCheck = 0;
+        while (size > 0) {
+            final int u = queue[head];
+            head = head + 1 == vertices ? 0 : head + 1;
+            size--;
+            queued[u] = false;
+            final double du = distances[u];
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                final int v = targets[j];
+                if (BellmanFordDouble.lowers(du, weights[j], distances[v])) {
+                    distances[v] = du + weights[j];
+                    predecessors[v] = u;
+                    sinceCheck++;
+                    if (!queued[v]) {
+                        queued[v] = true;
+                        final int tail = head + size;
+                        queue[tail >= vertices ? tail - vertices : tail] = v;
+                        size++;
+                    }
+                }
+            }
+            if (sinceCheck >= vertices) {
+                sinceCheck = 0;
+                final int[] cycle = cycleOf(predecessors);
+                if (cycle != null) {
+                    return cycle;
+                }
+            }
+        }
+        return cycleOf(predecessors);
+    }
+
+    /**
+     * Walks up from every node, stamping the walk with its start node, so every node is visited once.
+     * @return nodes of a cycle of the predecessor graph in edge order, or {@code null} if it is a forest.
+     */
+    static int[] cycleOf(int[] predecessors) {
+        final int vertices = predecessors.length;
+        final int[] stamps = new int[vertices];
+        Arrays.fill(stamps, NONE);
+        for (int start = 0; start < vertices; start++) {
+            int v = start;
+            while (v != NONE && stamps[v] == NONE) {
+                stamps[v] = start;
+                v = predecessors[v];
+            }
+            if (v != NONE && stamps[v] == start) {
+                int length = 1;
+                for (int u = predecessors[v]; u != v; u = predecessors[u]) {
+                    length++;
+                }
+                // Predecessors point backwards along the edges, so the walk is filled from the end
+                final int[] cycle = new int[length];
+                int u = v;
+                for (int i = length - 1; i >= 0; i--) {
+                    cycle[i] = u;
+                    u = predecessors[u];
+                }
+                return cycle;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+
+/**
+ * Plain counters of one kernel run. Every task owns its instance and the solver sums them after joining.
+ */
+final class RelaxationCounters {
+
+    long attempted;
+
+    long successful;
+
+    long active;
+
+    /**
+     * Duration of the run, the busy time of the task.
+     */
+    long nanos;
+
+    void clear() {
+        attempted = 0;
+        successful = 0;
+        active = 0;
+        nanos = 0;
+    }
+
+    RelaxationCounters add(RelaxationCounters other) {
+        attempted += other.attempted;
+        successful += other.successful;
+        active += other.active;
+        nanos += other.nanos;
+        return this;
+    }
+
+    RoundMetrics toRound(int round, long roundNanos) {
+        return new RoundMetrics(round, roundNanos, attempted, successful, active);
+    }
+}
@@ -0,0 +1,41 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathTree;
+
+/**
+ * Single-source shortest path solver. Solvers owning threads release them in {@link #close()}.
+ */
+public interface ShortestPathSolver extends AutoCloseable {
+
+    /**
+     * @param graph graph to solve.
+     * @param source source node.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     */
+    default ShortestPathResult solve(AdjacencyListGraph graph, int source) {
+        return solve(graph, source, SolverListener.NONE);
+    }
+
+    /**
+     * Solves and reports the progress to the listener.
+     * @param graph graph to solve.
+     * @param source source node.
+     * @param listener receiver of the round and worker metrics.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     */
+    ShortestPathResult solve(AdjacencyListGraph graph, int source, SolverListener listener);
+
+    /**
+     * Solves and builds the shortest-path tree from the distances.
+     * @see ShortestPathTree
+     */
+    default ShortestPathTree solveTree(AdjacencyListGraph graph, int source) {
+        return ShortestPathTree.of(graph, solve(graph, source));
+    }
+
+    @Override
+    default void close() {
+    }
+}
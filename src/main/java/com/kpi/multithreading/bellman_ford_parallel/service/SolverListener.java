@@ -0,0 +1,44 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.WorkerMetrics;
+
+/**
+ * Receives the progress of a solve. Parallel solvers may call it from their worker threads,
+ * but never concurrently for the same solve.
+ */
+public interface SolverListener {
+
+    /**
+     * Listener ignoring every event.
+     */
+    SolverListener NONE = new SolverListener() {
+    };
+
+    /**
+     * Reported by the caller which loaded the graph, solvers never call it.
+     */
+    default void graphLoaded(long nanos) {
+    }
+
+    /**
+     * The solver built its layout of the graph, e.g. the in-edge CSR of the pull strategies.
+     */
+    default void graphTransformed(long nanos) {
+    }
+
+    default void roundCompleted(RoundMetrics round) {
+    }
+
+    /**
+     * Reported once per worker at the end of a parallel solve.
+     */
+    default void workerCompleted(WorkerMetrics worker) {
+    }
+
+    /**
+     * Reported by the caller which timed the solve, solvers never call it.
+     */
+    default void solveCompleted(long nanos) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.WorkerMetrics;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Level-synchronous parallel SPFA. Every level the frontier is split into chunks relaxed on the thread pool.
+ * Distances are lowered with compare-and-set, and a vertex joins the next frontier only through the thread
+ * which set its bit in a shared bitset, so the next frontier has no duplicates.
+ * A vertex joining the frontier for the {@code vertices}-th time means a negative weight cycle.
+ */
+public class SpfaParallel implements ShortestPathSolver {
+
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * Frontiers smaller than this are relaxed on the calling thread.
+     */
+    private static final int MIN_PARALLEL_FRONTIER = 256;
+
+    private final int nThreads;
+
+    private final ExecutorService threadPool;
+
+    private final boolean ownsThreadPool;
+
+    public SpfaParallel(int nThreads) {
+        this(Executors.newFixedThreadPool(nThreads, new SolverThreadFactory("spfa-parallel")), nThreads, true);
+    }
+
+    /**
+     * Runs the solver on an external thread pool. The pool is not shut down by {@link #close()}.
+     * @param threadPool pool to run the frontier chunks on.
+     * @param nThreads number of threads of the pool.
+     */
+    public SpfaParallel(ExecutorService threadPool, int nThreads) {
+        this(threadPool, nThreads, false);
+    }
+
+    private SpfaParallel(ExecutorService threadPool, int nThreads, boolean ownsThreadPool) {
+        if (nThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.nThreads = nThreads;
+        this.threadPool = threadPool;
+        this.ownsThreadPool = ownsThreadPool;
+    }
+
+    /**
+     * Reports every level as a round. The workers are the chunk positions within a level,
+     * so worker {@code j} sums the {@code j}-th chunk of every level.
+     */
+    @Override
+    public ShortestPathResult solve(AdjacencyListGraph graph, int source, SolverListener listener) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] distances = new int[vertices];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        distances[source] = 0;
+
+        final long[] nextBits = new long[(vertices + 63) >>> 6];
+        final int[] frontierCounts = new int[vertices];
+        frontierCounts[source] = 1;
+        int[] frontier = {source};
+        int frontierSize = 1;
+        int rounds = 0;
+        final long[] busyNanos = new long[nThreads * 4];
+        final long[] waitNanos = new long[nThreads * 4];
+        int maxChunks = 0;
+
+        try {
+            while (frontierSize > 0) {
+                rounds++;
+                final long roundStart = System.nanoTime();
+                final int chunks = frontierSize < MIN_PARALLEL_FRONTIER ? 1 : Math.min(nThreads * 4,
+                        frontierSize / (MIN_PARALLEL_FRONTIER / 4));
+                final List<FrontierChunk> tasks = new ArrayList<>(chunks);
+                final int perChunk = frontierSize / chunks;
+                final int extra = frontierSize % chunks;
+                int offset = 0;
+                for (int j = 0; j < chunks; j++) {
+                    final int size = j < extra ? perChunk + 1 : perChunk;
+                    tasks.add(new FrontierChunk(graph, distances, nextBits, frontierCounts, frontier, offset,
+                            offset + size));
+                    offset += size;
+                }
+
+                if (chunks == 1) {
+                    tasks.get(0).run();
+                } else {
+                    final List<Future<?>> results = new ArrayList<>(chunks);
+                    for (FrontierChunk task : tasks) {
+                        results.add(threadPool.submit(task));
+                    }
+                    for (Future<?> result : results) {
+                        result.get();
+                    }
+                }
+
+                final long roundNanos = System.nanoTime() - roundStart;
+                final RelaxationCounters total = new RelaxationCounters();
+                int nextSize = 0;
+                for (int j = 0; j < chunks; j++) {
+                    final FrontierChunk task = tasks.get(j);
+                    if (task.negativeCycle) {
+                        throw NegativeCycleFinder.exception(graph, source);
+                    }
+                    nextSize += task.nextSize;
+                    total.add(task.counters);
+                    busyNanos[j] += task.counters.nanos;
+                    waitNanos[j] += Math.max(0, roundNanos - task.counters.nanos);
+                }
+                maxChunks = Math.max(maxChunks, chunks);
+                total.active = nextSize;
+                listener.roundCompleted(total.toRound(rounds, roundNanos));
+                final int[] next = new int[nextSize];
+                int position = 0;
+                for (FrontierChunk task : tasks) {
+                    System.arraycopy(task.next, 0, next, position, task.nextSize);
+                    position += task.nextSize;
+                }
+                for (int v : next) {
+                    nextBits[v >>> 6] = 0;
+                }
+                frontier = next;
+                frontierSize = nextSize;
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        for (int j = 0; j < maxChunks; j++) {
+            listener.workerCompleted(new WorkerMetrics(j, busyNanos[j], waitNanos[j]));
+        }
+
+        return new ShortestPathResult(source, distances, rounds);
+    }
+
+    /**
+     * Shuts down the thread pool if it was created by the solver.
+     */
+    @Override
+    public void close() {
+        if (ownsThreadPool) {
+            threadPool.shutdownNow();
+        }
+    }
+
+    static class FrontierChunk implements Runnable {
+
+        private final int[] offsets;
+
+        private final int[] targets;
+
+        private final int[] weights;
+
+        private final int[] distances;
+
+        private final long[] nextBits;
+
+        private final int[] frontierCounts;
+
+        private final int[] frontier;
+
+        private final int begin;
+
+        private final int end;
+
+        private int[] next = new int[16];
+
+        private int nextSize;
+
+        private boolean negativeCycle;
+
+        private final RelaxationCounters counters = new RelaxationCounters();
+
+        FrontierChunk(AdjacencyListGraph graph, int[] distances, long[] nextBits, int[] frontierCounts,
+                      int[] frontier, int begin, int end) {
+            this.offsets = graph.getOffsets();
+            this.targets = graph.getTargets();
+            this.weights = graph.getWeights();
+            this.distances = distances;
+            this.nextBits = nextBits;
+            this.frontierCounts = frontierCounts;
+            this.frontier = frontier;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            final int vertices = distances.length;
+            long attempted = 0;
+            long successful = 0;
+            for (int i = begin; i < end; i++) {
+                final int u = frontier[i];
+                final int du = AtomicDistances.get(distances, u);
+                attempted += offsets[u + 1] - offsets[u];
+                for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                    final int v = targets[j];
+                    if (AtomicDistances.lower(distances, v, IntDistances.add(du, weights[j]))) {
+                        successful++;
+                        markNext(v, vertices);
+                    }
+                }
+            }
+            counters.attempted = attempted;
+            counters.successful = successful;
+            counters.nanos = System.nanoTime() - start;
+        }
+
+        private void markNext(int v, int vertices) {
+            final long mask = 1L << v;
+            final long previous = (long) BITS.getAndBitwiseOr(nextBits, v >>> 6, mask);
+            if ((previous & mask) != 0) {
+                return;
+            }
+            if (++frontierCounts[v] >= vertices) {
+                negativeCycle = true;
+            }
+            if (nextSize == next.length) {
+                next = Arrays.copyOf(next, nextSize * 2);
+            }
+            next[nextSize++] = v;
+        }
+    }
+}
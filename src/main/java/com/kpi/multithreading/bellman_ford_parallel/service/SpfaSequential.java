@@ -0,0 +1,83 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+
+/**
+ * Worklist Bellman-Ford (SPFA). Only the out-edges of vertices whose distance changed are relaxed.
+ * A vertex entering the queue for the {@code vertices}-th time means a negative weight cycle.
+ * The reported rounds are the FIFO generations of the queue.
+ */
+public class SpfaSequential implements ShortestPathSolver {
+
+    /**
+     * Reports every generation of the queue as a round, its active vertices are the vertices it enqueued.
+     */
+    @Override
+    public ShortestPathResult solve(AdjacencyListGraph graph, int source, SolverListener listener) {
+        final int vertices = graph.getVerticesNumber();
+        final int[] offsets = graph.getOffsets();
+        final int[] targets = graph.getTargets();
+        final int[] weights = graph.getWeights();
+        final int[] distances = new int[vertices];
+        for (int i = 0; i < vertices; i++) {
+            distances[i] = Integer.MAX_VALUE;
+        }
+        distances[source] = 0;
+
+        // Circular queue, every vertex is queued at most once at a time
+        final int[] queue = new int[vertices];
+        final boolean[] queued = new boolean[vertices];
+        final int[] enqueueCounts = new int[vertices];
+        long head = 0;
+        long tail = 0;
+        queue[0] = source;
+        queued[source] = true;
+        enqueueCounts[source] = 1;
+        tail++;
+
+        int rounds = 0;
+        long generationEnd = 0;
+        long roundStart = System.nanoTime();
+        long attempted = 0;
+        long successful = 0;
+        while (head < tail) {
+            if (head == generationEnd) {
+                if (rounds > 0) {
+                    final long now = System.nanoTime();
+                    listener.roundCompleted(new RoundMetrics(rounds, now - roundStart, attempted, successful,
+                            tail - generationEnd));
+                    roundStart = now;
+                    attempted = 0;
+                    successful = 0;
+                }
+                rounds++;
+                generationEnd = tail;
+            }
+            final int u = queue[(int) (head++ % vertices)];
+            queued[u] = false;
+            final int du = distances[u];
+            attempted += offsets[u + 1] - offsets[u];
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                final int v = targets[j];
+                final int candidate = IntDistances.add(du, weights[j]);
+                if (candidate < distances[v]) {
+                    distances[v] = candidate;
+                    successful++;
+                    if (!queued[v]) {
+                        if (++enqueueCounts[v] >= vertices) {
+                            throw NegativeCycleFinder.exception(graph, source);
+                        }
+                        queued[v] = true;
+                        queue[(int) (tail++ % vertices)] = v;
+                    }
+                }
+            }
+        }
+        listener.roundCompleted(new RoundMetrics(rounds, System.nanoTime() - roundStart, attempted, successful,
+                tail - generationEnd));
+
+        return new ShortestPathResult(source, distances, rounds);
+    }
+}
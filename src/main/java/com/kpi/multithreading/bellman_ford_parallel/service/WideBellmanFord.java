@@ -0,0 +1,173 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.WorkerMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Rounds of the Bellman-Ford solvers with distances wider than {@code int}. With one thread it scans the out-edges
+ * like {@link BellmanFordSequential}, with more it relaxes destination ranges of the in-edges in parallel like
+ * {@link BellmanFordParallel.Strategy#TASKS}, so every distance has a single writer and needs no atomics.
+ * Subclasses only relax the edges of their weight type. The listener gets every round and, with several threads,
+ * every destination range as a worker.
+ * @param <G> graph type.
+ * @param <D> distance array type.
+ */
+abstract class WideBellmanFord<G, D> implements AutoCloseable {
+
+    /**
+     * Tasks per thread of the parallel relaxation, leaving room for balancing.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final int nThreads;
+
+    private final ExecutorService threadPool;
+
+    /**
+     * @param nThreads number of threads, one runs on the calling thread without a pool.
+     * @param threadName name prefix of the pool threads.
+     */
+    WideBellmanFord(int nThreads, String threadName) {
+        if (nThreads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        this.nThreads = nThreads;
+        this.threadPool = nThreads == 1 ? null
+                : Executors.newFixedThreadPool(nThreads, new SolverThreadFactory(threadName));
+    }
+
+    /**
+     * Runs at most {@code vertices - 1} rounds and stops after the first round without updates.
+     * @param distances distances of all nodes, infinite but for the source.
+     * @return number of rounds, or {@code -1} if a negative weight cycle was found.
+     */
+    final int run(G graph, D distances, int vertices, SolverListener listener) {
+        if (threadPool == null) {
+            return runSequential(graph, distances, vertices, listener);
+        }
+        final long transformStart = System.nanoTime();
+        final G byDestination = reversed(graph);
+        listener.graphTransformed(System.nanoTime() - transformStart);
+        return runParallel(byDestination, distances, vertices, listener);
+    }
+
+    /**
+     * In-edges of the graph, the targets of the result are the source nodes.
+     */
+    abstract G reversed(G graph);
+
+    abstract int[] offsets(G graph);
+
+    /**
+     * Relaxes, or only checks, the out-edges of all nodes in order and adds its counts to {@code counters}.
+     * @return {@code true} if any distance can be lowered.
+     */
+    abstract boolean scan(G graph, D distances, boolean update, RelaxationCounters counters);
+
+    /**
+     * Relaxes, or only checks, the in-edges of the destination range and adds its counts to {@code counters}.
+     * @return {@code true} if any distance can be lowered.
+     */
+    abstract boolean relax(G byDestination, D distances, int vertexBegin, int vertexEnd, boolean update,
+                           RelaxationCounters counters);
+
+    private int runSequential(G graph, D distances, int vertices, SolverListener listener) {
+        final RelaxationCounters counters = new RelaxationCounters();
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < vertices - 1) {
+            rounds++;
+            final long roundStart = System.nanoTime();
+            counters.clear();
+            changed = scan(graph, distances, true, counters);
+            listener.roundCompleted(counters.toRound(rounds, System.nanoTime() - roundStart));
+        }
+        // A round without updates proves there is no negative cycle
+        return changed && scan(graph, distances, false, new RelaxationCounters()) ? -1 : rounds;
+    }
+
+    private int runParallel(G byDestination, D distances, int vertices, SolverListener listener) {
+        final int[] offsets = offsets(byDestination);
+        final int parallelism = Math.min(vertices, nThreads * TASKS_PER_THREAD);
+        final long cost = BellmanFordParallel.cost(offsets, vertices);
+        final int[] boundaries = new int[parallelism + 1];
+        boundaries[parallelism] = vertices;
+        for (int j = 1; j < parallelism; j++) {
+            boundaries[j] = Math.max(boundaries[j - 1], BellmanFordParallel.search(offsets, cost * j / parallelism));
+        }
+
+        // Counters of every task, owned by it while it runs
+        final RelaxationCounters[] counters = new RelaxationCounters[parallelism];
+        final List<Callable<Boolean>> relaxTasks = new ArrayList<>(parallelism);
+        final List<Callable<Boolean>> verifyTasks = new ArrayList<>(parallelism);
+        for (int j = 0; j < parallelism; j++) {
+            final int begin = boundaries[j];
+            final int end = boundaries[j + 1];
+            final RelaxationCounters taskCounters = new RelaxationCounters();
+            counters[j] = taskCounters;
+            relaxTasks.add(() -> {
+                final long start = System.nanoTime();
+                taskCounters.clear();
+                final boolean changed = relax(byDestination, distances, begin, end, true, taskCounters);
+                taskCounters.nanos = System.nanoTime() - start;
+                return changed;
+            });
+            verifyTasks.add(() -> relax(byDestination, distances, begin, end, false, new RelaxationCounters()));
+        }
+
+        final long[] busyNanos = new long[parallelism];
+        final long[] waitNanos = new long[parallelism];
+        int rounds = 0;
+        boolean changed = true;
+        while (changed && rounds < vertices - 1) {
+            rounds++;
+            final long roundStart = System.nanoTime();
+            changed = invokeAll(relaxTasks);
+            final long roundNanos = System.nanoTime() - roundStart;
+            final RelaxationCounters total = new RelaxationCounters();
+            for (int j = 0; j < parallelism; j++) {
+                total.add(counters[j]);
+                busyNanos[j] += counters[j].nanos;
+                waitNanos[j] += Math.max(0, roundNanos - counters[j].nanos);
+            }
+            listener.roundCompleted(total.toRound(rounds, roundNanos));
+        }
+        for (int j = 0; j < parallelism; j++) {
+            listener.workerCompleted(new WorkerMetrics(j, busyNanos[j], waitNanos[j]));
+        }
+        // A round without updates proves there is no negative cycle
+        return changed && invokeAll(verifyTasks) ? -1 : rounds;
+    }
+
+    private boolean invokeAll(List<Callable<Boolean>> tasks) {
+        try {
+            boolean any = false;
+            for (Future<Boolean> result : threadPool.invokeAll(tasks)) {
+                any |= result.get();
+            }
+            return any;
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Shuts down the thread pool.
+     */
+    @Override
+    public void close() {
+        if (threadPool != null) {
+            threadPool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.generators;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.BinaryEdgeWriter;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.EdgeSink;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.TextEdgeWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic graph generator. Edges are produced grouped by ascending source node,
+ * so graphs much larger than the heap can be streamed straight to a file.
+ * The same seed always yields the same graph, whatever the sink.
+ */
+public class GraphGenerator {
+
+    public static final int DEFAULT_MIN_WEIGHT = 1;
+
+    public static final int DEFAULT_MAX_WEIGHT = 100;
+
+    /**
+     * Length of the planted negative cycle.
+     */
+    static final int CYCLE_LENGTH = 3;
+
+    /**
+     * Quadrant probabilities of the R-MAT recursion, the usual Graph500 values. The last one is {@code 1 - A - B - C}.
+     */
+    private static final double RMAT_A = 0.57;
+
+    private static final double RMAT_B = 0.19;
+
+    private static final double RMAT_C = 0.19;
+
+    /**
+     * Attempts to draw an R-MAT target below the number of vertices before the edge is dropped.
+     */
+    private static final int RMAT_ATTEMPTS = 8;
+
+    public enum Type {
+        /**
+         * Erdős–Rényi G(n, p) graph, every ordered pair of distinct vertices is an edge with the same probability.
+         */
+        ERDOS_RENYI,
+        /**
+         * Square grid with edges in both directions between neighbours, like a road network.
+         * The number of edges follows from the number of vertices.
+         */
+        GRID,
+        /**
+         * Recursive matrix (R-MAT) graph with power-law degrees, a few hubs own most of the edges.
+         */
+        RMAT
+    }
+
+    private final Type type;
+
+    private final int vertices;
+
+    private final long edges;
+
+    private final int minWeight;
+
+    private final int maxWeight;
+
+    private final long seed;
+
+    private final boolean negativeCycle;
+
+    /**
+     * Creates a generator of graphs with weights in {@code [1, 100]} and no planted negative cycle.
+     */
+    public GraphGenerator(Type type, int vertices, long edges, long seed) {
+        this(type, vertices, edges, DEFAULT_MIN_WEIGHT, DEFAULT_MAX_WEIGHT, seed, false);
+    }
+
+    /**
+     * @param type graph family.
+     * @param vertices number of vertices, node ids are {@code [0, vertices)}.
+     * @param edges expected number of edges, ignored by {@link Type#GRID}.
+     * @param minWeight smallest edge weight, inclusive.
+     * @param maxWeight largest edge weight, inclusive.
+     * @param seed random seed.
+     * @param negativeCycle whether to plant a negative cycle reachable from node 0.
+     */
+    public GraphGenerator(Type type, int vertices, long edges, int minWeight, int maxWeight, long seed,
+                          boolean negativeCycle) {
+        if (vertices < 2) {
+            throw new IllegalArgumentException("Number of vertices must be at least 2");
+        }
+        if (edges < 0) {
+            throw new IllegalArgumentException("Number of edges must be non-negative");
+        }
+        if (minWeight > maxWeight) {
+            throw new IllegalArgumentException("Minimum weight is greater than maximum weight");
+        }
+        if (negativeCycle && vertices < CYCLE_LENGTH + 1) {
+            throw new IllegalArgumentException("Not enough vertices to plant a negative cycle");
+        }
+        this.type = type;
+        this.vertices = type == Type.GRID ? gridSide(vertices) * gridSide(vertices) : vertices;
+        this.edges = edges;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+        this.seed = seed;
+        this.negativeCycle = negativeCycle;
+    }
+
+    /**
+     * Number of vertices of the generated graph. A grid is rounded down to the nearest square.
+     */
+    public int getVerticesNumber() {
+        return vertices;
+    }
+
+    /**
+     * Generates the graph in memory.
+     */
+    public AdjacencyListGraph generate() {
+        final CsrSink sink = new CsrSink(vertices, (int) Math.min(Integer.MAX_VALUE - 8, expectedEdges()));
+        try {
+            generate(sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sink.toGraph();
+    }
+
+    /**
+     * Streams the graph in the text format, one {@code source target weight} line per edge.
+     */
+    public void writeText(String filePath) throws IOException {
+        try (EdgeSink sink = new TextEdgeWriter(filePath, true)) {
+            generate(sink);
+        }
+    }
+
+    /**
+     * Streams the graph in the binary format.
+     */
+    public void writeBinary(String filePath) throws IOException {
+        try (EdgeSink sink = new BinaryEdgeWriter(filePath, vertices)) {
+            generate(sink);
+        }
+    }
+
+    /**
+     * Streams the edges to the sink grouped by ascending source node. The sink is not closed.
+     */
+    public void generate(EdgeSink sink) throws IOException {
+        final SplittableRandom random = new SplittableRandom(seed);
+        // Drawn first, so the cycle does not depend on the graph family
+        final int[] cycle = negativeCycle ? plantCycle(random.split()) : null;
+        final SplittableRandom weights = random.split();
+        final SplittableRandom structure = random.split();
+        final EdgeSink target = cycle == null ? sink : new CycleSink(sink, cycle, maxWeight);
+        switch (type) {
+            case ERDOS_RENYI -> erdosRenyi(target, structure, weights);
+            case GRID -> grid(target, weights);
+            case RMAT -> rmat(target, structure, weights);
+        }
+        if (cycle != null) {
+            ((CycleSink) target).finish(vertices);
+        }
+    }
+
+    private long expectedEdges() {
+        final long structural = type == Type.GRID ? 4L * gridSide(vertices) * (gridSide(vertices) - 1) : edges;
+        return structural + (negativeCycle ? CYCLE_LENGTH + 1 : 0);
+    }
+
+    /**
+     * Batagelj–Brandes geometric skipping over the {@code V * (V - 1)} candidate pairs,
+     * linear in the number of generated edges rather than in the number of pairs.
+     */
+    private void erdosRenyi(EdgeSink sink, SplittableRandom random, SplittableRandom weights) throws IOException {
+        final long pairs = (long) vertices * (vertices - 1);
+        final double probability = Math.min(1.0, (double) edges / pairs);
+        if (probability <= 0) {
+            return;
+        }
+        final double logSkip = Math.log1p(-probability);
+        long pair = -1;
+        while (true) {
+            if (probability < 1.0) {
+                pair += 1 + (long) (Math.log1p(-random.nextDouble()) / logSkip);
+            } else {
+                pair++;
+            }
+            if (pair >= pairs || pair < 0) {
+                return;
+            }
+            final int source = (int) (pair / (vertices - 1));
+            int target = (int) (pair % (vertices - 1));
+            // Skip the diagonal
+            if (target >= source) {
+                target++;
+            }
+            sink.edge(source, target, weight(weights));
+        }
+    }
+
+    private void grid(EdgeSink sink, SplittableRandom weights) throws IOException {
+        final int side = gridSide(vertices);
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                final int vertex = row * side + column;
+                if (row > 0) {
+                    sink.edge(vertex, vertex - side, weight(weights));
+                }
+                if (column > 0) {
+                    sink.edge(vertex, vertex - 1, weight(weights));
+                }
+                if (column + 1 < side) {
+                    sink.edge(vertex, vertex + 1, weight(weights));
+                }
+                if (row + 1 < side) {
+                    sink.edge(vertex, vertex + side, weight(weights));
+                }
+            }
+        }
+    }
+
+    /**
+     * R-MAT generated row by row. The out-degree of every source is its share of the edges under the recursive
+     * row distribution, and the target bits are drawn conditionally on the source bits.
+     */
+    private void rmat(EdgeSink sink, SplittableRandom random, SplittableRandom weights) throws IOException {
+        final int scale = 32 - Integer.numberOfLeadingZeros(vertices - 1);
+        final double top = RMAT_A + RMAT_B;
+        double total = 0;
+        for (int source = 0; source < vertices; source++) {
+            total += rowProbability(source, scale, top);
+        }
+        final double topLeft = RMAT_A / top;
+        final double bottomLeft = RMAT_C / (1 - top);
+        for (int source = 0; source < vertices; source++) {
+            final double mean = edges * rowProbability(source, scale, top) / total;
+            long degree = (long) mean;
+            if (random.nextDouble() < mean - degree) {
+                degree++;
+            }
+            for (long i = 0; i < degree; i++) {
+                for (int attempt = 0; attempt < RMAT_ATTEMPTS; attempt++) {
+                    int target = 0;
+                    for (int bit = scale - 1; bit >= 0; bit--) {
+                        final double left = ((source >>> bit) & 1) == 0 ? topLeft : bottomLeft;
+                        if (random.nextDouble() >= left) {
+                            target |= 1 << bit;
+                        }
+                    }
+                    if (target < vertices) {
+                        sink.edge(source, target, weight(weights));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static double rowProbability(int source, int scale, double top) {
+        double probability = 1;
+        for (int bit = 0; bit < scale; bit++) {
+            probability *= ((source >>> bit) & 1) == 0 ? top : 1 - top;
+        }
+        return probability;
+    }
+
+    private int[] plantCycle(SplittableRandom random) {
+        // Distinct vertices other than node 0, which is the entry into the cycle
+        return random.ints(1, vertices).distinct().limit(CYCLE_LENGTH).toArray();
+    }
+
+    private int weight(SplittableRandom random) {
+        return (int) random.nextLong(minWeight, maxWeight + 1L);
+    }
+
+    private static int gridSide(int vertices) {
+        return Math.max(2, (int) Math.sqrt(vertices));
+    }
+
+    /**
+     * Merges the planted cycle into the ordered edge stream. Every cycle edge weighs -1,
+     * and node 0 gets an extra edge to the first cycle vertex so the cycle is reachable from it.
+     */
+    private static class CycleSink implements EdgeSink {
+
+        private final EdgeSink sink;
+
+        private final long[] planted;
+
+        private final int[] weights;
+
+        private int position;
+
+        private CycleSink(EdgeSink sink, int[] cycle, int entryWeight) {
+            this.sink = sink;
+            this.planted = new long[cycle.length + 1];
+            this.weights = new int[planted.length];
+            // Source in the high half, target in the low half, so sorting groups the edges by source
+            for (int i = 0; i < cycle.length; i++) {
+                planted[i] = (long) cycle[i] << 32 | cycle[(i + 1) % cycle.length];
+            }
+            planted[cycle.length] = cycle[0];
+            Arrays.sort(planted);
+            for (int i = 0; i < planted.length; i++) {
+                weights[i] = planted[i] >>> 32 == 0 ? entryWeight : -1;
+            }
+        }
+
+        @Override
+        public void edge(int source, int target, int weight) throws IOException {
+            flushBefore(source);
+            sink.edge(source, target, weight);
+        }
+
+        void finish(int vertices) throws IOException {
+            flushBefore(vertices);
+        }
+
+        private void flushBefore(int source) throws IOException {
+            while (position < planted.length && planted[position] >>> 32 < source) {
+                sink.edge((int) (planted[position] >>> 32), (int) planted[position], weights[position]);
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Collects the ordered edge stream directly into CSR arrays.
+     */
+    private static class CsrSink implements EdgeSink {
+
+        private final int[] offsets;
+
+        private int[] targets;
+
+        private int[] weights;
+
+        private int size;
+
+        private CsrSink(int vertices, int capacity) {
+            this.offsets = new int[vertices + 1];
+            this.targets = new int[Math.max(capacity, 16)];
+            this.weights = new int[targets.length];
+        }
+
+        @Override
+        public void edge(int source, int target, int weight) {
+            if (size == targets.length) {
+                final int capacity = size + (size >> 1);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            offsets[source + 1]++;
+            targets[size] = target;
+            weights[size] = weight;
+            size++;
+        }
+
+        AdjacencyListGraph toGraph() {
+            for (int v = 0; v + 1 < offsets.length; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            return new AdjacencyListGraph(offsets, Arrays.copyOf(targets, size), Arrays.copyOf(weights, size));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.readers;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary graph file. All values are little-endian.
+ * <pre>
+ * header   magic (int), version (int), flags (int), vertices (int), edges (long), reserved (long)
+ * offsets  int[vertices + 1]
+ * targets  int[edges]
+ * weights  int[edges]
+ * </pre>
+ */
+public final class BinaryGraphFormat {
+
+    public static final int MAGIC = 0x52474642;
+
+    public static final int VERSION = 1;
+
+    public static final int HEADER_SIZE = 32;
+
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private BinaryGraphFormat() {
+    }
+
+    public static long offsetsPosition() {
+        return HEADER_SIZE;
+    }
+
+    public static long targetsPosition(int vertices) {
+        return HEADER_SIZE + (vertices + 1L) * Integer.BYTES;
+    }
+
+    public static long weightsPosition(int vertices, long edges) {
+        return targetsPosition(vertices) + edges * Integer.BYTES;
+    }
+
+    public static long fileSize(int vertices, long edges) {
+        return weightsPosition(vertices, edges) + edges * Integer.BYTES;
+    }
+}
@@ -0,0 +1,115 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.readers;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.MappedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.MappedIntArray;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opens graphs stored in the {@link BinaryGraphFormat}.
+ */
+public class BinaryGraphReader {
+
+    /**
+     * Checks the magic number at the beginning of the file.
+     */
+    public static boolean isBinaryGraph(String filePath) throws IOException {
+        final Path path = Path.of(filePath);
+        if (!Files.isRegularFile(path) || Files.size(path) < BinaryGraphFormat.HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(BinaryGraphFormat.BYTE_ORDER);
+            channel.read(magic, 0);
+            return magic.getInt(0) == BinaryGraphFormat.MAGIC;
+        }
+    }
+
+    /**
+     * Memory-maps the file in windows of {@link MappedIntArray#WINDOW_SIZE} ints, so arrays beyond 2 GiB
+     * can be mapped. The returned graph reads the arrays from the page cache, nothing is copied.
+     * The offsets and the targets are read once to validate them.
+     * @throws IllegalArgumentException if the header, the offsets or the targets are not valid.
+     */
+    public MappedGraph open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(BinaryGraphFormat.HEADER_SIZE)
+                    .order(BinaryGraphFormat.BYTE_ORDER);
+            if (channel.read(header, 0) != BinaryGraphFormat.HEADER_SIZE
+                    || header.getInt(0) != BinaryGraphFormat.MAGIC) {
+                throw new IllegalArgumentException("Graph file is not valid!");
+            }
+            final int version = header.getInt(4);
+            if (version != BinaryGraphFormat.VERSION) {
+                throw new IllegalArgumentException("Unsupported graph file version " + version);
+            }
+            final int vertices = header.getInt(12);
+            final long edges = header.getLong(16);
+            // The heap graph of read() holds every array in one int[]
+            if (vertices < 1 || vertices > Integer.MAX_VALUE - 9 || edges < 0 || edges > Integer.MAX_VALUE - 8
+                    || channel.size() < BinaryGraphFormat.fileSize(vertices, edges)) {
+                throw new IllegalArgumentException("Graph file is not valid!");
+            }
+
+            final MappedIntArray offsets = map(channel, BinaryGraphFormat.offsetsPosition(), vertices + 1L);
+            final MappedIntArray targets = map(channel, BinaryGraphFormat.targetsPosition(vertices), edges);
+            final MappedIntArray weights = map(channel, BinaryGraphFormat.weightsPosition(vertices, edges), edges);
+            validate(offsets, targets, vertices, edges);
+            return new MappedGraph(offsets, targets, weights);
+        }
+    }
+
+    /**
+     * Loads the graph to the heap with one bulk copy per array.
+     */
+    public AdjacencyListGraph read(String filePath) throws IOException {
+        return open(filePath).toAdjacencyListGraph();
+    }
+
+    private static MappedIntArray map(FileChannel channel, long position, long count) throws IOException {
+        final IntBuffer[] windows = new IntBuffer[Math.max(1, MappedIntArray.windowsOf(count))];
+        for (int w = 0; w < windows.length; w++) {
+            final long first = (long) w * MappedIntArray.WINDOW_SIZE;
+            final long size = Math.min(MappedIntArray.WINDOW_SIZE, count - first);
+            windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * Integer.BYTES,
+                            size * Integer.BYTES)
+                    .order(BinaryGraphFormat.BYTE_ORDER)
+                    .asIntBuffer();
+        }
+        return new MappedIntArray(windows);
+    }
+
+    /**
+     * Checks that the offsets start at zero, never decrease and end at the number of edges,
+     * and that every target is a vertex, so a corrupt file fails here instead of inside a solver.
+     */
+    private static void validate(MappedIntArray offsets, MappedIntArray targets, int vertices, long edges) {
+        int previous = 0;
+        if (offsets.get(0) != 0 || offsets.get(vertices) != edges) {
+            throw new IllegalArgumentException("Graph file is not valid!");
+        }
+        for (int v = 1; v <= vertices; v++) {
+            final int offset = offsets.get(v);
+            if (offset < previous) {
+                throw new IllegalArgumentException("Graph file is not valid!");
+            }
+            previous = offset;
+        }
+        for (int w = 0; w < targets.getWindowsNumber(); w++) {
+            final IntBuffer window = targets.getWindow(w);
+            for (int j = 0; j < window.limit(); j++) {
+                final int target = window.get(j);
+                if (target < 0 || target >= vertices) {
+                    throw new IllegalArgumentException("Graph file is not valid!");
+                }
+            }
+        }
+    }
+}
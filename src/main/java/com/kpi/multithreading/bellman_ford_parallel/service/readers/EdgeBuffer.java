@@ -0,0 +1,212 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.readers;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.VertexIdMap;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive storage for parsed edges. A wide buffer keeps 64-bit weights instead,
+ * either {@code long} values or the raw bits of {@code double} values. An external buffer keeps 64-bit node ids
+ * until {@link #remap(VertexIdMap)} replaces them with dense ones.
+ */
+class EdgeBuffer {
+
+    private int[] sources;
+
+    private int[] destinations;
+
+    private int[] prices;
+
+    private long[] widePrices;
+
+    private long[] externalSources;
+
+    private long[] externalDestinations;
+
+    private int size;
+
+    EdgeBuffer(int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * @param wide whether the buffer keeps 64-bit weights, added with {@link #addWide(int, int, long)}.
+     */
+    EdgeBuffer(int capacity, boolean wide) {
+        final int initial = Math.max(capacity, 16);
+        this.sources = new int[initial];
+        this.destinations = new int[initial];
+        if (wide) {
+            this.widePrices = new long[initial];
+        } else {
+            this.prices = new int[initial];
+        }
+    }
+
+    /**
+     * Buffer with 32-bit weights and external node ids, added with {@link #addExternal(long, long, int)}.
+     */
+    static EdgeBuffer external(int capacity) {
+        final EdgeBuffer buffer = new EdgeBuffer(capacity);
+        buffer.externalSources = new long[buffer.sources.length];
+        buffer.externalDestinations = new long[buffer.sources.length];
+        return buffer;
+    }
+
+    void add(int source, int destination, int price) {
+        if (prices == null) {
+            throw new IllegalStateException("Edge buffer keeps 64-bit weights");
+        }
+        if (externalSources != null) {
+            throw new IllegalStateException("Edge buffer keeps external node ids");
+        }
+        if (size == sources.length) {
+            grow(size + (size >> 1));
+        }
+        sources[size] = source;
+        destinations[size] = destination;
+        prices[size] = price;
+        size++;
+    }
+
+    /**
+     * Adds an edge to a wide buffer.
+     * @param price {@code long} weight, or the bits of a {@code double} weight.
+     */
+    void addWide(int source, int destination, long price) {
+        if (widePrices == null) {
+            throw new IllegalStateException("Edge buffer keeps 32-bit weights");
+        }
+        if (size == sources.length) {
+            grow(size + (size >> 1));
+        }
+        sources[size] = source;
+        destinations[size] = destination;
+        widePrices[size] = price;
+        size++;
+    }
+
+    void addExternal(long source, long destination, int price) {
+        if (size == sources.length) {
+            grow(size + (size >> 1));
+        }
+        externalSources[size] = source;
+        externalDestinations[size] = destination;
+        prices[size] = price;
+        size++;
+    }
+
+    /**
+     * Replaces the external node ids with dense ids, assigned in buffer order.
+     */
+    void remap(VertexIdMap ids) {
+        for (int i = 0; i < size; i++) {
+            sources[i] = ids.add(externalSources[i]);
+            destinations[i] = ids.add(externalDestinations[i]);
+        }
+        externalSources = null;
+        externalDestinations = null;
+    }
+
+    void addAll(EdgeBuffer other) {
+        if (size + other.size > sources.length) {
+            grow(size + other.size);
+        }
+        System.arraycopy(other.sources, 0, sources, size, other.size);
+        System.arraycopy(other.destinations, 0, destinations, size, other.size);
+        if (externalSources != null) {
+            System.arraycopy(other.externalSources, 0, externalSources, size, other.size);
+            System.arraycopy(other.externalDestinations, 0, externalDestinations, size, other.size);
+        }
+        if (prices != null) {
+            System.arraycopy(other.prices, 0, prices, size, other.size);
+        } else {
+            System.arraycopy(other.widePrices, 0, widePrices, size, other.size);
+        }
+        size += other.size;
+    }
+
+    private void grow(int capacity) {
+        sources = Arrays.copyOf(sources, capacity);
+        destinations = Arrays.copyOf(destinations, capacity);
+        if (externalSources != null) {
+            externalSources = Arrays.copyOf(externalSources, capacity);
+            externalDestinations = Arrays.copyOf(externalDestinations, capacity);
+        }
+        if (prices != null) {
+            prices = Arrays.copyOf(prices, capacity);
+        } else {
+            widePrices = Arrays.copyOf(widePrices, capacity);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    AdjacencyListGraph toGraph() {
+        if (prices == null) {
+            throw new IllegalStateException("Edge buffer keeps 64-bit weights");
+        }
+        if (externalSources != null) {
+            throw new IllegalStateException("Edge buffer keeps external node ids");
+        }
+        return new AdjacencyListGraph(sources, destinations, prices, size);
+    }
+
+    /**
+     * Builds the graph of a wide buffer, reading the weights as {@code long} values.
+     */
+    LongWeightedGraph toLongGraph() {
+        final AdjacencyListGraph structure = toStructure();
+        final int[] order = structure.getWeights();
+        final long[] weights = new long[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = widePrices[order[i]];
+        }
+        return new LongWeightedGraph(structure.getOffsets(), structure.getTargets(), weights);
+    }
+
+    /**
+     * Builds the graph of a wide buffer, reading the weights as {@code double} bits.
+     */
+    DoubleWeightedGraph toDoubleGraph() {
+        final AdjacencyListGraph structure = toStructure();
+        final int[] order = structure.getWeights();
+        final double[] weights = new double[size];
+        for (int i = 0; i < size; i++) {
+            weights[i] = Double.longBitsToDouble(widePrices[order[i]]);
+        }
+        return new DoubleWeightedGraph(structure.getOffsets(), structure.getTargets(), weights);
+    }
+
+    /**
+     * CSR structure whose weights are the buffer positions of the edges, so the wide weights can be permuted
+     * into the CSR order.
+     */
+    private AdjacencyListGraph toStructure() {
+        if (widePrices == null) {
+            throw new IllegalStateException("Edge buffer keeps 32-bit weights");
+        }
+        final int[] positions = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = i;
+        }
+        return new AdjacencyListGraph(sources, destinations, positions, size);
+    }
+
+    int[] sources() {
+        return sources;
+    }
+
+    int[] destinations() {
+        return destinations;
+    }
+
+    int[] prices() {
+        return prices;
+    }
+}
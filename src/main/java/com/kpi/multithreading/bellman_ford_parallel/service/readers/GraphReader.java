@@ -1,55 +1,430 @@
 package com.kpi.multithreading.bellman_ford_parallel.service.readers;
 
 import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RemappedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.VertexIdMap;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Reads edge list files, one edge per line: {@code source destination [weight]}, separated by whitespace.
+ * The file is memory-mapped in chunks and parsed byte by byte straight into primitive buffers.
+ * Chunk boundaries are moved to the next line start, so the chunks can be parsed in parallel.
+ * Weights are 32-bit integers by default, and can be read as 64-bit integers or as decimal numbers.
+ */
 public class GraphReader {
 
+    /**
+     * Type of the third column.
+     */
+    private enum Weights {
+        NONE, INT, LONG, DOUBLE
+    }
+
+    /**
+     * Largest integer mantissa of the fast decimal path, every smaller one is exact in a {@code double}.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Powers of ten which are exact in a {@code double}, so one division by them rounds correctly.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int DEFAULT_CHUNK_SIZE = 64 << 20;
+
+    private static final int MIN_PARALLEL_CHUNK_SIZE = 1 << 20;
+
+    private final int parallelism;
+
+    private final int chunkSize;
+
+    public GraphReader() {
+        this(1);
+    }
+
+    /**
+     * @param parallelism number of threads used to parse the file chunks.
+     */
+    public GraphReader(int parallelism) {
+        this(parallelism, DEFAULT_CHUNK_SIZE);
+    }
+
+    GraphReader(int parallelism, int chunkSize) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
     public AdjacencyListGraph readWeightedGraph(String filePath, int linesSkip) throws IOException {
-        final List<String> lines = Files.readAllLines(Path.of(filePath));
+        return read(filePath, linesSkip, Weights.INT, false).toGraph();
+    }
 
-        final List<List<Integer>> graphRepresentation = new ArrayList<>();
-        try {
-            for (int i = linesSkip; i < lines.size(); i++) {
-                if (!lines.get(i).isBlank()) {
-                    graphRepresentation.add(Arrays
-                            .stream(lines.get(i).split("\\s+"))
-                            .map(Integer::valueOf)
-                            .toList());
+    public AdjacencyListGraph readUnweightedGraph(String filePath, int linesSkip) throws IOException {
+        return read(filePath, linesSkip, Weights.NONE, false).toGraph();
+    }
+
+    /**
+     * Reads a graph with arbitrary 64-bit node ids, e.g. sparse ids of a map extract, and maps them to dense ids
+     * in order of first appearance in the file.
+     * @param weighted whether the lines have a weight column.
+     */
+    public RemappedGraph readRemappedGraph(String filePath, int linesSkip, boolean weighted) throws IOException {
+        final EdgeBuffer edges = read(filePath, linesSkip, weighted ? Weights.INT : Weights.NONE, true);
+        final VertexIdMap ids = new VertexIdMap(edges.size() / 4);
+        edges.remap(ids);
+        return new RemappedGraph(edges.toGraph(), ids);
+    }
+
+    /**
+     * Reads a weighted graph with 64-bit integer weights.
+     */
+    public LongWeightedGraph readLongWeightedGraph(String filePath, int linesSkip) throws IOException {
+        return read(filePath, linesSkip, Weights.LONG, false).toLongGraph();
+    }
+
+    /**
+     * Reads a weighted graph with decimal weights, optionally with a fraction or an exponent.
+     */
+    public DoubleWeightedGraph readDoubleWeightedGraph(String filePath, int linesSkip) throws IOException {
+        return read(filePath, linesSkip, Weights.DOUBLE, false).toDoubleGraph();
+    }
+
+    /**
+     * @param external whether the node ids are kept as 64-bit external ids to be remapped.
+     */
+    private EdgeBuffer read(String filePath, int linesSkip, Weights weighted, boolean external) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long begin = skipLines(channel, linesSkip);
+            final long[] boundaries = splitChunks(channel, begin, size);
+            final int chunks = boundaries.length - 1;
+
+            if (parallelism == 1 || chunks == 1) {
+                final EdgeBuffer edges = buffer((int) Math.min(Integer.MAX_VALUE - 8, (size - begin) / 16),
+                        weighted, external);
+                for (int i = 0; i < chunks; i++) {
+                    parse(channel, boundaries[i], boundaries[i + 1], weighted, edges, external);
                 }
+                return edges;
             }
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Graph file is not valid!");
+            return parseParallel(channel, boundaries, weighted, external);
         }
+    }
 
-        return new AdjacencyListGraph(graphRepresentation);
+    private static boolean isWide(Weights weighted) {
+        return weighted == Weights.LONG || weighted == Weights.DOUBLE;
     }
 
-    public AdjacencyListGraph readUnweightedGraph(String filePath, int linesSkip) throws IOException {
-        final List<String> lines = Files.readAllLines(Path.of(filePath));
+    private static EdgeBuffer buffer(int capacity, Weights weighted, boolean external) {
+        return external ? EdgeBuffer.external(capacity) : new EdgeBuffer(capacity, isWide(weighted));
+    }
 
-        final List<List<Integer>> graphRepresentation = new ArrayList<>();
+    private EdgeBuffer parseParallel(FileChannel channel, long[] boundaries, Weights weighted, boolean external)
+            throws IOException {
+        final int chunks = boundaries.length - 1;
+        final ExecutorService threadPool = Executors.newFixedThreadPool(Math.min(parallelism, chunks));
         try {
-            for (int i = linesSkip; i < lines.size(); i++) {
-                if (!lines.get(i).isBlank()) {
-                    final List<Integer> edgeRepresentation = new ArrayList<>(Arrays
-                            .stream(lines.get(i).split("\\s+"))
-                            .map(Integer::valueOf)
-                            .toList());
-                    edgeRepresentation.add(1);
-                    graphRepresentation.add(edgeRepresentation);
+            final List<Future<EdgeBuffer>> results = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                final long chunkBegin = boundaries[i];
+                final long chunkEnd = boundaries[i + 1];
+                results.add(threadPool.submit(() -> {
+                    final EdgeBuffer chunkEdges = buffer((int) ((chunkEnd - chunkBegin) / 16), weighted, external);
+                    parse(channel, chunkBegin, chunkEnd, weighted, chunkEdges, external);
+                    return chunkEdges;
+                }));
+            }
+
+            final List<EdgeBuffer> parsed = new ArrayList<>(chunks);
+            int total = 0;
+            for (Future<EdgeBuffer> result : results) {
+                final EdgeBuffer chunkEdges = result.get();
+                parsed.add(chunkEdges);
+                total = Math.addExact(total, chunkEdges.size());
+            }
+            final EdgeBuffer edges = buffer(total, weighted, external);
+            for (EdgeBuffer chunkEdges : parsed) {
+                edges.addAll(chunkEdges);
+            }
+            return edges;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits {@code [begin, end)} into chunks which start at line boundaries.
+     */
+    private long[] splitChunks(FileChannel channel, long begin, long end) throws IOException {
+        final long length = end - begin;
+        long nominal = chunkSize;
+        if (parallelism > 1) {
+            nominal = Math.min(nominal, Math.max(MIN_PARALLEL_CHUNK_SIZE, length / (parallelism * 4L)));
+        }
+        final List<Long> boundaries = new ArrayList<>();
+        boundaries.add(begin);
+        long position = begin + nominal;
+        while (position < end) {
+            final long lineStart = nextLineStart(channel, position - 1, end);
+            if (lineStart >= end) {
+                break;
+            }
+            if (lineStart > boundaries.get(boundaries.size() - 1)) {
+                boundaries.add(lineStart);
+            }
+            position = lineStart + nominal;
+        }
+        boundaries.add(end);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long skipLines(FileChannel channel, int linesSkip) throws IOException {
+        long position = 0;
+        final long size = channel.size();
+        for (int i = 0; i < linesSkip && position < size; i++) {
+            position = nextLineStart(channel, position, size);
+        }
+        return position;
+    }
+
+    /**
+     * Returns the position right after the first line feed at or after {@code position}, or {@code end}.
+     */
+    private static long nextLineStart(FileChannel channel, long position, long end) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (position < end) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return end;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return Math.min(end, position + i + 1);
+                }
+            }
+            position += read;
+        }
+        return end;
+    }
+
+    /**
+     * Parses the lines of {@code [begin, end)} into {@code edges}. Blank lines are skipped.
+     * @param external whether the node ids are parsed as 64-bit external ids.
+     */
+    private static void parse(FileChannel channel, long begin, long end, Weights weighted, EdgeBuffer edges,
+                              boolean external) throws IOException {
+        if (end - begin > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph file line is too long");
+        }
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, begin, end - begin);
+        final int limit = buffer.limit();
+        final int required = weighted == Weights.NONE ? 2 : 3;
+        final int[] tokens = new int[3];
+        final long[] wide = new long[1];
+        final long[] ids = new long[2];
+        int position = 0;
+        while (position < limit) {
+            int count = 0;
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == '\n') {
+                    position++;
+                    break;
+                }
+                if (b == ' ' || b == '\t' || b == '\r') {
+                    position++;
+                    continue;
+                }
+                if (count < 2 && external) {
+                    position = parseLong(buffer, position, limit, wide);
+                    ids[count] = wide[0];
+                    count++;
+                    continue;
                 }
+                if (count == 2 && isWide(weighted)) {
+                    position = weighted == Weights.LONG ? parseLong(buffer, position, limit, wide)
+                            : parseDouble(buffer, position, limit, wide);
+                    count++;
+                    continue;
+                }
+
+                boolean negative = false;
+                if (b == '-' || b == '+') {
+                    negative = b == '-';
+                    position++;
+                }
+                long value = 0;
+                final int digitsBegin = position;
+                while (position < limit && (b = buffer.get(position)) >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    if (value > 1L + Integer.MAX_VALUE) {
+                        throw new IllegalArgumentException("Graph file is not valid!");
+                    }
+                    position++;
+                }
+                checkTokenEnd(buffer, position, limit, digitsBegin);
+                value = negative ? -value : value;
+                if (value > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Graph file is not valid!");
+                }
+                if (count < required) {
+                    tokens[count] = (int) value;
+                }
+                count++;
             }
+
+            if (count == 0) {
+                continue;
+            }
+            if (count < required) {
+                throw new IllegalArgumentException("Graph file is not valid!");
+            }
+            if (external) {
+                edges.addExternal(ids[0], ids[1], weighted == Weights.NONE ? 1 : tokens[2]);
+                continue;
+            }
+            switch (weighted) {
+                case NONE -> edges.add(tokens[0], tokens[1], 1);
+                case INT -> edges.add(tokens[0], tokens[1], tokens[2]);
+                default -> edges.addWide(tokens[0], tokens[1], wide[0]);
+            }
+        }
+    }
+
+    /**
+     * Parses a 64-bit integer token starting at {@code position} into {@code value[0]}.
+     * @return position right after the token.
+     */
+    private static int parseLong(MappedByteBuffer buffer, int position, int limit, long[] value) {
+        byte b = buffer.get(position);
+        boolean negative = false;
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            position++;
+        }
+        // Accumulated negatively, so Long.MIN_VALUE can be parsed as well
+        long result = 0;
+        final int digitsBegin = position;
+        while (position < limit && (b = buffer.get(position)) >= '0' && b <= '9') {
+            if (result < Long.MIN_VALUE / 10 || result * 10 < Long.MIN_VALUE + (b - '0')) {
+                throw new IllegalArgumentException("Graph file is not valid!");
+            }
+            result = result * 10 - (b - '0');
+            position++;
+        }
+        checkTokenEnd(buffer, position, limit, digitsBegin);
+        if (!negative && result == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Graph file is not valid!");
+        }
+        value[0] = negative ? result : -result;
+        return position;
+    }
+
+    /**
+     * Parses a decimal token starting at {@code position} into the bits of a {@code double} in {@code value[0]}.
+     * Plain decimals with a short mantissa are converted directly, the rest goes through
+     * {@link Double#parseDouble(String)}.
+     * @return position right after the token.
+     */
+    private static int parseDouble(MappedByteBuffer buffer, int position, int limit, long[] value) {
+        final int tokenBegin = position;
+        byte b = buffer.get(position);
+        boolean negative = false;
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        boolean exact = true;
+        while (position < limit) {
+            b = buffer.get(position);
+            if (b >= '0' && b <= '9') {
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                    exact = false;
+                } else {
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+                digits++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b == 'e' || b == 'E' || b == '-' || b == '+') {
+                // Exponent, handled by the slow path
+                exact = false;
+            } else {
+                break;
+            }
+            position++;
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("Graph file is not valid!");
+        }
+        checkTokenEnd(buffer, position, limit, tokenBegin);
+
+        if (exact && fractionDigits < POWERS_OF_TEN.length) {
+            final double result = mantissa / POWERS_OF_TEN[fractionDigits];
+            value[0] = Double.doubleToRawLongBits(negative ? -result : result);
+            return position;
+        }
+        final byte[] token = new byte[position - tokenBegin];
+        buffer.get(tokenBegin, token);
+        try {
+            final double result = Double.parseDouble(new String(token, StandardCharsets.US_ASCII));
+            if (Double.isNaN(result)) {
+                throw new IllegalArgumentException("Graph file is not valid!");
+            }
+            value[0] = Double.doubleToRawLongBits(result);
         } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Graph file is not valid!");
         }
+        return position;
+    }
 
-        return new AdjacencyListGraph(graphRepresentation);
+    /**
+     * Checks that a token has at least one character and ends at whitespace or at the end of the chunk.
+     */
+    private static void checkTokenEnd(MappedByteBuffer buffer, int position, int limit, int tokenBegin) {
+        final byte b;
+        if (position == tokenBegin
+                || position < limit && (b = buffer.get(position)) != ' ' && b != '\t' && b != '\r' && b != '\n') {
+            throw new IllegalArgumentException("Graph file is not valid!");
+        }
     }
 }
@@ -0,0 +1,49 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.readers;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the partition file of the out-of-core solver: the in-edges of the graph split into blocks of
+ * consecutive destinations. All values are little-endian, every block starts at a multiple of {@link #ALIGNMENT}.
+ * <pre>
+ * header   magic (int), version (int), blocks (int), vertices (int), edges (long), reserved (long)
+ * index    blocks * (first vertex (int), vertex count (int), edges (long), position (long))
+ * block    offsets int[vertex count + 1], relative to the block, sources int[edges], weights int[edges]
+ * </pre>
+ */
+public final class PartitionedGraphFormat {
+
+    public static final int MAGIC = 0x50474642;
+
+    public static final int VERSION = 1;
+
+    public static final int HEADER_SIZE = 32;
+
+    public static final int INDEX_ENTRY_SIZE = 24;
+
+    public static final int ALIGNMENT = 4096;
+
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private PartitionedGraphFormat() {
+    }
+
+    public static long indexPosition(int block) {
+        return HEADER_SIZE + (long) block * INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * Position of the first block, after the index.
+     */
+    public static long blocksPosition(int blocks) {
+        return align(indexPosition(blocks));
+    }
+
+    public static long blockSize(int vertices, long edges) {
+        return (vertices + 1L + 2 * edges) * Integer.BYTES;
+    }
+
+    public static long align(long position) {
+        return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
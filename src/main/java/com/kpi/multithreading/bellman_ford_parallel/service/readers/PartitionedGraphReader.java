@@ -0,0 +1,61 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.readers;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.PartitionedGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opens partition files stored in the {@link PartitionedGraphFormat}.
+ */
+public class PartitionedGraphReader {
+
+    /**
+     * Memory-maps every block. Nothing is read until a block is accessed or loaded.
+     */
+    public PartitionedGraph open(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(PartitionedGraphFormat.HEADER_SIZE)
+                    .order(PartitionedGraphFormat.BYTE_ORDER);
+            if (channel.read(header, 0) != PartitionedGraphFormat.HEADER_SIZE
+                    || header.getInt(0) != PartitionedGraphFormat.MAGIC) {
+                throw new IllegalArgumentException("Partition file is not valid!");
+            }
+            final int version = header.getInt(4);
+            if (version != PartitionedGraphFormat.VERSION) {
+                throw new IllegalArgumentException("Unsupported partition file version " + version);
+            }
+            final int blocks = header.getInt(8);
+            final int vertices = header.getInt(12);
+            final long edges = header.getLong(16);
+            if (blocks < 1 || vertices < 1 || edges < 0
+                    || channel.size() < PartitionedGraphFormat.blocksPosition(blocks)) {
+                throw new IllegalArgumentException("Partition file is not valid!");
+            }
+
+            final ByteBuffer index = ByteBuffer.allocate(blocks * PartitionedGraphFormat.INDEX_ENTRY_SIZE)
+                    .order(PartitionedGraphFormat.BYTE_ORDER);
+            channel.read(index, PartitionedGraphFormat.indexPosition(0));
+            index.flip();
+            final PartitionedGraph.Block[] partitions = new PartitionedGraph.Block[blocks];
+            for (int b = 0; b < blocks; b++) {
+                final int begin = index.getInt();
+                final int count = index.getInt();
+                final long blockEdges = index.getLong();
+                final long position = index.getLong();
+                final long size = PartitionedGraphFormat.blockSize(count, blockEdges);
+                if (count < 0 || blockEdges < 0 || size > Integer.MAX_VALUE || position + size > channel.size()) {
+                    throw new IllegalArgumentException("Partition file is not valid!");
+                }
+                final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                region.order(PartitionedGraphFormat.BYTE_ORDER);
+                partitions[b] = new PartitionedGraph.Block(begin, begin + count, region);
+            }
+            return new PartitionedGraph(vertices, edges, partitions);
+        }
+    }
+}
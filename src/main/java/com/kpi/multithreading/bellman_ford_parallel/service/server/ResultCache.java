@@ -0,0 +1,102 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.server;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of solve results by source node, bounded by the memory of the cached distances
+ * instead of by the number of entries.
+ */
+class ResultCache {
+
+    /**
+     * Estimated heap bytes of an entry besides its distances: map node, boxed key, result and array headers.
+     */
+    private static final long ENTRY_OVERHEAD = 96;
+
+    private final long budget;
+
+    // Access ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Integer, ShortestPathResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long used;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * @param budget largest estimated heap bytes of the cached results, {@code 0} disables the cache.
+     */
+    ResultCache(long budget) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Cache budget must not be negative");
+        }
+        this.budget = budget;
+    }
+
+    /**
+     * @return cached result of the source, or {@code null}.
+     */
+    synchronized ShortestPathResult get(int source) {
+        final ShortestPathResult result = entries.get(source);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #get(int)} without counting a hit or a miss.
+     * @return cached result of the source, or {@code null}.
+     */
+    synchronized ShortestPathResult peek(int source) {
+        return entries.get(source);
+    }
+
+    /**
+     * Caches the result and evicts the least recently used entries until the cache fits its budget.
+     * A result larger than the whole budget is not cached.
+     */
+    synchronized void put(ShortestPathResult result) {
+        final long size = sizeOf(result);
+        if (size > budget) {
+            return;
+        }
+        final ShortestPathResult previous = entries.put(result.getSource(), result);
+        if (previous != null) {
+            used -= sizeOf(previous);
+        }
+        used += size;
+        final Iterator<Map.Entry<Integer, ShortestPathResult>> eldest = entries.entrySet().iterator();
+        while (used > budget) {
+            used -= sizeOf(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getUsed() {
+        return used;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    private static long sizeOf(ShortestPathResult result) {
+        return ENTRY_OVERHEAD + 4L * result.getDistances().length;
+    }
+}
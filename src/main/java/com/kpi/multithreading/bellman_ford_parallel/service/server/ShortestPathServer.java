@@ -0,0 +1,294 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.server;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.service.NegativeCycleException;
+import com.kpi.multithreading.bellman_ford_parallel.service.ShortestPathSolver;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a graph loaded and answers shortest path queries over HTTP, so a query costs a solve or a cache hit
+ * instead of a JVM start and a graph load.
+ * <ul>
+ *     <li>{@code GET /distances?source=S[&targets=a,b,...]} - one {@code vertex distance} line per node,
+ *     or per target, with {@code INF} for unreachable nodes.</li>
+ *     <li>{@code GET /stats} - graph size and cache counters as JSON.</li>
+ * </ul>
+ * At most {@code maxSolves} solves run at a time, each on its own solver instance. Concurrent queries for the
+ * same source share one solve, and recent results are kept in an LRU cache bounded by their memory.
+ */
+public class ShortestPathServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private static final String UNREACHABLE = "INF";
+
+    private final AdjacencyListGraph graph;
+
+    private final Semaphore solves;
+
+    // One idle solver per free permit of the semaphore
+    private final Queue<ShortestPathSolver> solvers = new ConcurrentLinkedQueue<>();
+
+    private final ResultCache cache;
+
+    private final Map<Integer, CompletableFuture<ShortestPathResult>> running = new ConcurrentHashMap<>();
+
+    private final HttpServer server;
+
+    private final ExecutorService handlers;
+
+    /**
+     * Binds the server, {@link #start()} starts answering.
+     * @param solverFactory creates the {@code maxSolves} solvers, which are closed with the server.
+     * @param maxSolves largest number of concurrent solves.
+     * @param cacheBudget largest estimated heap bytes of the cached results, {@code 0} disables the cache.
+     * @param address address to bind, port {@code 0} picks a free one.
+     * @param handlerThreads number of threads serving the HTTP exchanges.
+     */
+    public ShortestPathServer(AdjacencyListGraph graph, Supplier<ShortestPathSolver> solverFactory, int maxSolves,
+                              long cacheBudget, InetSocketAddress address, int handlerThreads) throws IOException {
+        if (maxSolves < 1 || handlerThreads < 1) {
+            throw new IllegalArgumentException("Number of solves and handler threads must be positive");
+        }
+        this.graph = graph;
+        this.solves = new Semaphore(maxSolves);
+        this.cache = new ResultCache(cacheBudget);
+        for (int i = 0; i < maxSolves; i++) {
+            solvers.add(solverFactory.get());
+        }
+
+        final AtomicInteger counter = new AtomicInteger();
+        this.handlers = Executors.newFixedThreadPool(handlerThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "query-handler-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(handlers);
+        server.createContext("/distances", this::distances);
+        server.createContext("/stats", this::stats);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Bound address, with the actual port if port {@code 0} was requested.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Solves the source, or returns the cached or the currently running solve of it.
+     * @throws IllegalArgumentException if the node does not exist.
+     * @throws NegativeCycleException if a negative weight cycle is reachable from the source.
+     * @throws CancellationException if the running solve this query waited for was interrupted.
+     */
+    public ShortestPathResult query(int source) throws InterruptedException {
+        if (source < 0 || source >= graph.getVerticesNumber()) {
+            throw new IllegalArgumentException("Node " + source + " does not exist");
+        }
+        final ShortestPathResult cached = cache.get(source);
+        if (cached != null) {
+            return cached;
+        }
+
+        final CompletableFuture<ShortestPathResult> created = new CompletableFuture<>();
+        final CompletableFuture<ShortestPathResult> other = running.putIfAbsent(source, created);
+        if (other != null) {
+            return await(other);
+        }
+        try {
+            // The previous solve of the source may have finished between the cache lookup and the registration
+            final ShortestPathResult finished = cache.peek(source);
+            final ShortestPathResult result = finished != null ? finished : solve(source);
+            cache.put(result);
+            created.complete(result);
+            return result;
+        } catch (RuntimeException | InterruptedException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            running.remove(source, created);
+        }
+    }
+
+    private ShortestPathResult solve(int source) throws InterruptedException {
+        solves.acquire();
+        final ShortestPathSolver solver = solvers.poll();
+        try {
+            return solver.solve(graph, source);
+        } finally {
+            solvers.add(solver);
+            solves.release();
+        }
+    }
+
+    /**
+     * Waits for the solve of another query. An interrupted solve does not interrupt the waiting thread,
+     * only the thread which ran it.
+     */
+    private static ShortestPathResult await(CompletableFuture<ShortestPathResult> solve) throws InterruptedException {
+        try {
+            return solve.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof InterruptedException) {
+                throw new CancellationException("Solve of the source was interrupted");
+            }
+            throw new IllegalStateException("Solve of the source failed", e.getCause());
+        }
+    }
+
+    private void distances(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                respond(exchange, 405, "Only GET is supported");
+                return;
+            }
+            final ShortestPathResult result;
+            final int[] targets;
+            try {
+                final Map<String, String> parameters = parameters(exchange.getRequestURI().getRawQuery());
+                final String source = parameters.get("source");
+                if (source == null) {
+                    throw new IllegalArgumentException("Parameter source is required");
+                }
+                targets = targets(parameters.get("targets"));
+                result = query(Integer.parseInt(source));
+            } catch (IllegalArgumentException e) {
+                // Also covers NumberFormatException
+                respond(exchange, 400, e.getMessage());
+                return;
+            } catch (NegativeCycleException e) {
+                respond(exchange, 409, e.getMessage());
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, "Server is shutting down");
+                return;
+            } catch (CancellationException e) {
+                respond(exchange, 503, e.getMessage());
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                    StandardCharsets.UTF_8), 1 << 16);
+            final int[] distances = result.getDistances();
+            if (targets == null) {
+                for (int v = 0; v < distances.length; v++) {
+                    writeLine(writer, v, distances[v]);
+                }
+            } else {
+                for (int v : targets) {
+                    writeLine(writer, v, distances[v]);
+                }
+            }
+            writer.flush();
+        }
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            final String json = "{\"vertices\":" + graph.getVerticesNumber()
+                    + ",\"edges\":" + graph.getEdgesNumber()
+                    + ",\"cachedResults\":" + cache.size()
+                    + ",\"cacheBytes\":" + cache.getUsed()
+                    + ",\"cacheHits\":" + cache.getHits()
+                    + ",\"cacheMisses\":" + cache.getMisses()
+                    + ",\"freeSolves\":" + solves.availablePermits()
+                    + "}";
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            respond(exchange, 200, json);
+        }
+    }
+
+    private static void writeLine(Writer writer, int vertex, int distance) throws IOException {
+        writer.write(Integer.toString(vertex));
+        writer.write(' ');
+        writer.write(distance == ShortestPathResult.INFINITY ? UNREACHABLE : Integer.toString(distance));
+        writer.write('\n');
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        final byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> parameters(String query) {
+        final Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            final int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * @return target nodes of a comma separated list, or {@code null} for all nodes.
+     * @throws IllegalArgumentException if a target is not a node of the graph.
+     */
+    private int[] targets(String list) {
+        if (list == null) {
+            return null;
+        }
+        final String[] parts = list.split(",");
+        final int[] targets = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            targets[i] = Integer.parseInt(parts[i].strip());
+            if (targets[i] < 0 || targets[i] >= graph.getVerticesNumber()) {
+                throw new IllegalArgumentException("Node " + targets[i] + " does not exist");
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Stops answering and closes the solvers.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+        ShortestPathSolver solver;
+        while ((solver = solvers.poll()) != null) {
+            solver.close();
+        }
+    }
+}
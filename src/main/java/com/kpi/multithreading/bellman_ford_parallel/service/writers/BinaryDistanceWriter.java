@@ -0,0 +1,137 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Writes distances as little-endian binary blocks, one per source:
+ * <pre>
+ * header   magic (int), version (int), type (int), flags (int), source (long), count (long)
+ * records  count * (vertex (long), distance (int, long or double by type))
+ * </pre>
+ * A block with the {@link #DENSE} flag holds the distances of all nodes in id order without the vertex ids,
+ * {@code count * distance}, a third of the size of sparse int records.
+ * Unreachable nodes keep the infinity of the type: {@link Integer#MAX_VALUE}, {@link Long#MAX_VALUE}
+ * or {@link Double#POSITIVE_INFINITY}.
+ */
+public class BinaryDistanceWriter extends DistanceWriter {
+
+    public static final int MAGIC = 0x52444642;
+
+    public static final int VERSION = 1;
+
+    public static final int HEADER_SIZE = 32;
+
+    /**
+     * Flag of the blocks without vertex ids.
+     */
+    public static final int DENSE = 1;
+
+    /**
+     * Distance type of the records, stored as its ordinal.
+     */
+    public enum Type {
+        INT, LONG, DOUBLE
+    }
+
+    private final Type type;
+
+    private final boolean dense;
+
+    private final ByteBuffer view = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+
+    // Vertex expected next in a dense block
+    private long next;
+
+    public BinaryDistanceWriter(String filePath, Type type) throws IOException {
+        this(filePath, type, false);
+    }
+
+    public BinaryDistanceWriter(OutputStream output, Type type) {
+        this(output, type, false);
+    }
+
+    /**
+     * @param dense whether to write {@link #DENSE} blocks, which take the distances of all nodes in id order.
+     */
+    public BinaryDistanceWriter(String filePath, Type type, boolean dense) throws IOException {
+        super(filePath);
+        this.type = type;
+        this.dense = dense;
+    }
+
+    /**
+     * @param dense whether to write {@link #DENSE} blocks, which take the distances of all nodes in id order.
+     */
+    public BinaryDistanceWriter(OutputStream output, Type type, boolean dense) {
+        super(output);
+        this.type = type;
+        this.dense = dense;
+    }
+
+    @Override
+    public void begin(long source, long count) throws IOException {
+        reserve(HEADER_SIZE);
+        view.putInt(position, MAGIC)
+                .putInt(position + 4, VERSION)
+                .putInt(position + 8, type.ordinal())
+                .putInt(position + 12, dense ? DENSE : 0)
+                .putLong(position + 16, source)
+                .putLong(position + 24, count);
+        position += HEADER_SIZE;
+        next = 0;
+    }
+
+    @Override
+    public void write(long vertex, int distance) throws IOException {
+        check(Type.INT, vertex);
+        if (dense) {
+            reserve(Integer.BYTES);
+            view.putInt(position, distance);
+            position += Integer.BYTES;
+            return;
+        }
+        reserve(Long.BYTES + Integer.BYTES);
+        view.putLong(position, vertex).putInt(position + Long.BYTES, distance);
+        position += Long.BYTES + Integer.BYTES;
+    }
+
+    @Override
+    public void write(long vertex, long distance) throws IOException {
+        check(Type.LONG, vertex);
+        if (dense) {
+            reserve(Long.BYTES);
+            view.putLong(position, distance);
+            position += Long.BYTES;
+            return;
+        }
+        reserve(2 * Long.BYTES);
+        view.putLong(position, vertex).putLong(position + Long.BYTES, distance);
+        position += 2 * Long.BYTES;
+    }
+
+    @Override
+    public void write(long vertex, double distance) throws IOException {
+        check(Type.DOUBLE, vertex);
+        if (dense) {
+            reserve(Double.BYTES);
+            view.putDouble(position, distance);
+            position += Double.BYTES;
+            return;
+        }
+        reserve(Long.BYTES + Double.BYTES);
+        view.putLong(position, vertex).putDouble(position + Long.BYTES, distance);
+        position += Long.BYTES + Double.BYTES;
+    }
+
+    private void check(Type written, long vertex) {
+        if (written != type) {
+            throw new IllegalStateException("Writer expects " + type + " distances");
+        }
+        if (dense && vertex != next++) {
+            throw new IllegalStateException("Dense blocks need the distances of all nodes in id order");
+        }
+    }
+}
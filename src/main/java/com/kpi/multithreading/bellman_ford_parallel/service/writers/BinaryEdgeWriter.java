@@ -0,0 +1,130 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.BinaryGraphFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams edges grouped by ascending source node into the {@link BinaryGraphFormat}.
+ * Only the row offsets are kept in memory. Targets are written in place, right after the space reserved
+ * for the offsets. Weights go to a temporary file and are appended when the number of edges is known.
+ */
+public class BinaryEdgeWriter implements EdgeSink {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path path;
+
+    private final int vertices;
+
+    private final int[] offsets;
+
+    private final FileChannel channel;
+
+    private final Path weightsPath;
+
+    private final FileChannel weightsChannel;
+
+    private final ByteBuffer targetsBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BinaryGraphFormat.BYTE_ORDER);
+
+    private final ByteBuffer weightsBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BinaryGraphFormat.BYTE_ORDER);
+
+    private int lastSource;
+
+    private long edges;
+
+    /**
+     * @param filePath file to create or overwrite.
+     * @param vertices number of vertices, every node id must be below it.
+     */
+    public BinaryEdgeWriter(String filePath, int vertices) throws IOException {
+        if (vertices < 1) {
+            throw new IllegalArgumentException("Number of vertices must be positive");
+        }
+        this.path = Path.of(filePath);
+        this.vertices = vertices;
+        this.offsets = new int[vertices + 1];
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+        this.weightsPath = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(),
+                ".weights");
+        this.weightsChannel = FileChannel.open(weightsPath, StandardOpenOption.WRITE, StandardOpenOption.READ,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        this.channel.position(BinaryGraphFormat.targetsPosition(vertices));
+    }
+
+    @Override
+    public void edge(int source, int target, int weight) throws IOException {
+        if (source < lastSource) {
+            throw new IllegalStateException("Edges must be grouped by ascending source node");
+        }
+        if (source >= vertices || target < 0 || target >= vertices) {
+            throw new IllegalArgumentException("Node id out of range");
+        }
+        if (edges == Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many edges for the binary format");
+        }
+        lastSource = source;
+        offsets[source + 1]++;
+        edges++;
+        if (!targetsBuffer.hasRemaining()) {
+            flush(channel, targetsBuffer);
+            flush(weightsChannel, weightsBuffer);
+        }
+        targetsBuffer.putInt(target);
+        weightsBuffer.putInt(weight);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel; weightsChannel) {
+            flush(channel, targetsBuffer);
+            flush(weightsChannel, weightsBuffer);
+
+            // Weights follow the targets
+            long transferred = 0;
+            final long weightsSize = weightsChannel.size();
+            while (transferred < weightsSize) {
+                transferred += weightsChannel.transferTo(transferred, weightsSize - transferred, channel);
+            }
+
+            for (int v = 0; v < vertices; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            channel.position(0);
+            final ByteBuffer header = ByteBuffer.allocate(BinaryGraphFormat.HEADER_SIZE)
+                    .order(BinaryGraphFormat.BYTE_ORDER);
+            header.putInt(BinaryGraphFormat.MAGIC)
+                    .putInt(BinaryGraphFormat.VERSION)
+                    .putInt(0)
+                    .putInt(vertices)
+                    .putLong(edges)
+                    .putLong(0);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            int written = 0;
+            while (written <= vertices) {
+                final int batch = Math.min(vertices + 1 - written, targetsBuffer.remaining() / Integer.BYTES);
+                targetsBuffer.asIntBuffer().put(offsets, written, batch);
+                targetsBuffer.position(batch * Integer.BYTES);
+                flush(channel, targetsBuffer);
+                written += batch;
+            }
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
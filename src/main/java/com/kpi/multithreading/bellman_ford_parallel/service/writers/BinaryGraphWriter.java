@@ -0,0 +1,58 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.BinaryGraphFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saves graphs in the {@link BinaryGraphFormat}.
+ */
+public class BinaryGraphWriter {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    public void write(AdjacencyListGraph graph, String filePath) throws IOException {
+        final int vertices = graph.getVerticesNumber();
+        final int edges = graph.getEdgesNumber();
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(BinaryGraphFormat.BYTE_ORDER);
+            buffer.putInt(BinaryGraphFormat.MAGIC)
+                    .putInt(BinaryGraphFormat.VERSION)
+                    .putInt(0)
+                    .putInt(vertices)
+                    .putLong(edges)
+                    .putLong(0);
+            writeInts(channel, buffer, graph.getOffsets(), vertices + 1);
+            writeInts(channel, buffer, graph.getTargets(), edges);
+            writeInts(channel, buffer, graph.getWeights(), edges);
+            flush(channel, buffer);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values, int count) throws IOException {
+        int written = 0;
+        while (written < count) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush(channel, buffer);
+            }
+            final int batch = Math.min(count - written, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(values, written, batch);
+            buffer.position(buffer.position() + batch * Integer.BYTES);
+            written += batch;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,90 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams solve results through a fixed buffer, so writing the distances of a large graph takes linear time
+ * and constant memory instead of building the whole output first.
+ * The output is a sequence of blocks, one per source: {@link #begin(long, long)} followed by the distances.
+ * Unreachable nodes are passed with the infinity of their distance type.
+ */
+public abstract class DistanceWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    final byte[] buffer = new byte[BUFFER_SIZE];
+
+    int position;
+
+    private final OutputStream output;
+
+    private final boolean owned;
+
+    /**
+     * @param filePath file to create or overwrite, closed with the writer.
+     */
+    DistanceWriter(String filePath) throws IOException {
+        this.output = Files.newOutputStream(Path.of(filePath));
+        this.owned = true;
+    }
+
+    /**
+     * @param output stream to write to, only flushed by {@link #close()}, e.g. {@link System#out}.
+     */
+    DistanceWriter(OutputStream output) {
+        this.output = output;
+        this.owned = false;
+    }
+
+    /**
+     * Starts the block of a source.
+     * @param source node id of the source, as it should appear in the output.
+     * @param count number of distances which follow.
+     */
+    public abstract void begin(long source, long count) throws IOException;
+
+    /**
+     * @param distance distance, {@link Integer#MAX_VALUE} if the node is unreachable.
+     */
+    public abstract void write(long vertex, int distance) throws IOException;
+
+    /**
+     * @param distance distance, {@link Long#MAX_VALUE} if the node is unreachable.
+     */
+    public abstract void write(long vertex, long distance) throws IOException;
+
+    /**
+     * @param distance distance, {@link Double#POSITIVE_INFINITY} if the node is unreachable.
+     */
+    public abstract void write(long vertex, double distance) throws IOException;
+
+    /**
+     * Makes room for {@code bytes} more bytes in the buffer.
+     */
+    void reserve(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            output.flush();
+        } finally {
+            if (owned) {
+                output.close();
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        output.write(buffer, 0, position);
+        position = 0;
+    }
+}
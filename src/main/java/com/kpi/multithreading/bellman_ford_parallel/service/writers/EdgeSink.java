@@ -0,0 +1,17 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Consumer of a stream of edges.
+ */
+@FunctionalInterface
+public interface EdgeSink extends Closeable {
+
+    void edge(int source, int target, int weight) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,237 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.MappedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.MappedIntArray;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.PartitionedGraphFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Splits the in-edges of a memory-mapped graph into the destination blocks of the {@link PartitionedGraphFormat}.
+ * The source graph is streamed sequentially: once for the in-degrees, once to append every edge to the bucket of
+ * its block in a temporary file. Every block is then built from its bucket alone, so the random writes of the
+ * counting sort stay within one block and the file never has to fit into memory.
+ * <p>
+ * The heap holds one int per vertex and a small buffer per block. The temporary file takes 12 bytes per edge and
+ * is deleted when the partition file is written. Vertex ids and the number of edges are ints, as in the binary
+ * graph format, and every block is mapped as one region, so the in-edges of a single vertex must fit into 2 GiB.
+ */
+public class PartitionedGraphWriter {
+
+    /**
+     * 4M edges, 32 MiB of sources and weights per block.
+     */
+    public static final int DEFAULT_BLOCK_EDGES = 1 << 22;
+
+    /**
+     * Largest block size which keeps every block mappable as one region.
+     */
+    private static final int MAX_BLOCK_EDGES = (Integer.MAX_VALUE - 8) / (3 * Integer.BYTES);
+
+    /**
+     * Bytes of an edge in the temporary file: destination, source and weight.
+     */
+    private static final int BUCKET_ENTRY_SIZE = 3 * Integer.BYTES;
+
+    /**
+     * Edges buffered per block before they are appended to its bucket.
+     */
+    private static final int BUCKET_BUFFER_EDGES = 4096;
+
+    /**
+     * Edges read from a bucket at a time while its block is built.
+     */
+    private static final int READ_BUFFER_EDGES = 1 << 16;
+
+    private final int blockEdges;
+
+    public PartitionedGraphWriter() {
+        this(DEFAULT_BLOCK_EDGES);
+    }
+
+    /**
+     * @param blockEdges largest number of edges per block, exceeded only by a single vertex with more in-edges.
+     */
+    public PartitionedGraphWriter(int blockEdges) {
+        if (blockEdges < 1 || blockEdges > MAX_BLOCK_EDGES) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + MAX_BLOCK_EDGES + " edges");
+        }
+        this.blockEdges = blockEdges;
+    }
+
+    /**
+     * Writes the partition file, using {@code filePath + ".tmp"} for the buckets.
+     * @throws IllegalArgumentException if the in-edges of a single vertex do not fit into one mapped region.
+     */
+    public void write(MappedGraph graph, String filePath) throws IOException {
+        final int vertices = graph.getVerticesNumber();
+        final MappedIntArray offsets = graph.getOffsets();
+        final MappedIntArray targets = graph.getTargets();
+        final MappedIntArray weights = graph.getWeights();
+
+        // In-degrees, turned into the next free slot of every destination within its block further down
+        final int[] cursors = new int[vertices];
+        for (int w = 0; w < targets.getWindowsNumber(); w++) {
+            final IntBuffer window = targets.getWindow(w);
+            for (int j = 0; j < window.limit(); j++) {
+                cursors[window.get(j)]++;
+            }
+        }
+
+        int[] boundaries = new int[16];
+        long[] blockEdgeCounts = new long[16];
+        int blocks = 0;
+        int begin = 0;
+        long edges = 0;
+        for (int v = 0; v <= vertices; v++) {
+            if (v == vertices || v > begin && (edges + cursors[v] > blockEdges || v - begin == blockEdges)) {
+                if (blocks + 1 == boundaries.length) {
+                    boundaries = Arrays.copyOf(boundaries, boundaries.length * 2);
+                    blockEdgeCounts = Arrays.copyOf(blockEdgeCounts, blockEdgeCounts.length * 2);
+                }
+                if (PartitionedGraphFormat.blockSize(v - begin, edges) > Integer.MAX_VALUE - 8) {
+                    throw new IllegalArgumentException("In-edges of node " + begin + " do not fit into a block");
+                }
+                boundaries[blocks + 1] = v;
+                blockEdgeCounts[blocks++] = edges;
+                begin = v;
+                edges = 0;
+            }
+            if (v < vertices) {
+                edges += cursors[v];
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel buckets = FileChannel.open(Path.of(filePath + ".tmp"), StandardOpenOption.CREATE,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING,
+                     StandardOpenOption.DELETE_ON_CLOSE)) {
+            final long[] bucketPositions = new long[blocks + 1];
+            for (int b = 0; b < blocks; b++) {
+                bucketPositions[b + 1] = bucketPositions[b] + blockEdgeCounts[b] * BUCKET_ENTRY_SIZE;
+            }
+            fillBuckets(offsets, targets, weights, vertices, boundaries, blocks, blockEdgeCounts, bucketPositions,
+                    buckets);
+
+            final ByteBuffer header = ByteBuffer.allocate((int) PartitionedGraphFormat.indexPosition(blocks))
+                    .order(PartitionedGraphFormat.BYTE_ORDER);
+            header.putInt(PartitionedGraphFormat.MAGIC)
+                    .putInt(PartitionedGraphFormat.VERSION)
+                    .putInt(blocks)
+                    .putInt(vertices)
+                    .putLong(graph.getEdgesNumber())
+                    .putLong(0);
+
+            final ByteBuffer entries = ByteBuffer.allocate(READ_BUFFER_EDGES * BUCKET_ENTRY_SIZE)
+                    .order(PartitionedGraphFormat.BYTE_ORDER);
+            long position = PartitionedGraphFormat.blocksPosition(blocks);
+            for (int b = 0; b < blocks; b++) {
+                final int blockVertices = boundaries[b + 1] - boundaries[b];
+                final int blockEdgeCount = (int) blockEdgeCounts[b];
+                header.putInt(boundaries[b])
+                        .putInt(blockVertices)
+                        .putLong(blockEdgeCount)
+                        .putLong(position);
+                final long size = PartitionedGraphFormat.blockSize(blockVertices, blockEdgeCount);
+                final IntBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, position, size)
+                        .order(PartitionedGraphFormat.BYTE_ORDER)
+                        .asIntBuffer();
+                int offset = 0;
+                for (int v = boundaries[b]; v < boundaries[b + 1]; v++) {
+                    region.put(offset);
+                    final int degree = cursors[v];
+                    cursors[v] = offset;
+                    offset += degree;
+                }
+                region.put(offset);
+                final IntBuffer sources = region.slice(blockVertices + 1, blockEdgeCount);
+                final IntBuffer blockWeights = region.slice(blockVertices + 1 + blockEdgeCount, blockEdgeCount);
+
+                // Counting sort of the bucket by destination, stable, so the in-edges stay sorted by source
+                long read = bucketPositions[b];
+                while (read < bucketPositions[b + 1]) {
+                    entries.clear().limit((int) Math.min(entries.capacity(), bucketPositions[b + 1] - read));
+                    while (entries.hasRemaining()) {
+                        read += buckets.read(entries, read);
+                    }
+                    entries.flip();
+                    while (entries.hasRemaining()) {
+                        final int slot = cursors[entries.getInt()]++;
+                        sources.put(slot, entries.getInt());
+                        blockWeights.put(slot, entries.getInt());
+                    }
+                }
+                position = PartitionedGraphFormat.align(position + size);
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Appends every edge as destination, source and weight to the bucket of the block of its destination.
+     * Sources are visited in ascending order, so every bucket holds the in-edges of a destination sorted by source.
+     */
+    private static void fillBuckets(MappedIntArray offsets, MappedIntArray targets, MappedIntArray weights,
+                                    int vertices, int[] boundaries, int blocks, long[] blockEdgeCounts,
+                                    long[] bucketPositions, FileChannel buckets) throws IOException {
+        final ByteBuffer[] buffers = new ByteBuffer[blocks];
+        final long[] positions = Arrays.copyOf(bucketPositions, blocks);
+        for (int b = 0; b < blocks; b++) {
+            final int capacity = (int) Math.min(BUCKET_BUFFER_EDGES, blockEdgeCounts[b]) * BUCKET_ENTRY_SIZE;
+            buffers[b] = ByteBuffer.allocate(capacity).order(PartitionedGraphFormat.BYTE_ORDER);
+        }
+        long j = 0;
+        for (int u = 0; u < vertices; u++) {
+            final int end = offsets.get(u + 1);
+            for (; j < end; j++) {
+                final int v = targets.get(j);
+                final int b = blockOf(boundaries, blocks, v);
+                final ByteBuffer buffer = buffers[b];
+                buffer.putInt(v).putInt(u).putInt(weights.get(j));
+                if (!buffer.hasRemaining()) {
+                    positions[b] += flush(buffer, buckets, positions[b]);
+                }
+            }
+        }
+        for (int b = 0; b < blocks; b++) {
+            positions[b] += flush(buffers[b], buckets, positions[b]);
+        }
+    }
+
+    private static long flush(ByteBuffer buffer, FileChannel channel, long position) throws IOException {
+        buffer.flip();
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        buffer.clear();
+        return written;
+    }
+
+    /**
+     * Binary search of the block holding the destination.
+     */
+    private static int blockOf(int[] boundaries, int blocks, int vertex) {
+        int low = 0;
+        int high = blocks - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (boundaries[middle] <= vertex) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+}
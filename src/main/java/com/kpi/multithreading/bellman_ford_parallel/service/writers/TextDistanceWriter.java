@@ -0,0 +1,111 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes one {@code vertex distance} line per node, with {@value #UNREACHABLE} for unreachable nodes.
+ * Every block starts with a {@code # source S} line. Integers are formatted by hand into the buffer,
+ * so writing them allocates nothing per node.
+ */
+public class TextDistanceWriter extends DistanceWriter {
+
+    public static final String UNREACHABLE = "INF";
+
+    /**
+     * Longest line: two longs with signs, a separator and a line feed.
+     */
+    private static final int MAX_LINE = 2 * 20 + 2;
+
+    private static final byte[] SOURCE = "# source ".getBytes(StandardCharsets.US_ASCII);
+
+    public TextDistanceWriter(String filePath) throws IOException {
+        super(filePath);
+    }
+
+    public TextDistanceWriter(OutputStream output) {
+        super(output);
+    }
+
+    @Override
+    public void begin(long source, long count) throws IOException {
+        reserve(SOURCE.length + MAX_LINE);
+        System.arraycopy(SOURCE, 0, buffer, position, SOURCE.length);
+        position += SOURCE.length;
+        appendLong(source);
+        buffer[position++] = '\n';
+    }
+
+    @Override
+    public void write(long vertex, int distance) throws IOException {
+        reserve(MAX_LINE);
+        appendLong(vertex);
+        buffer[position++] = ' ';
+        if (distance == Integer.MAX_VALUE) {
+            appendUnreachable();
+        } else {
+            appendLong(distance);
+        }
+        buffer[position++] = '\n';
+    }
+
+    @Override
+    public void write(long vertex, long distance) throws IOException {
+        reserve(MAX_LINE);
+        appendLong(vertex);
+        buffer[position++] = ' ';
+        if (distance == Long.MAX_VALUE) {
+            appendUnreachable();
+        } else {
+            appendLong(distance);
+        }
+        buffer[position++] = '\n';
+    }
+
+    @Override
+    public void write(long vertex, double distance) throws IOException {
+        if (distance == Double.POSITIVE_INFINITY) {
+            reserve(MAX_LINE);
+            appendLong(vertex);
+            buffer[position++] = ' ';
+            appendUnreachable();
+            buffer[position++] = '\n';
+            return;
+        }
+        final String formatted = Double.toString(distance);
+        reserve(MAX_LINE + formatted.length());
+        appendLong(vertex);
+        buffer[position++] = ' ';
+        for (int i = 0; i < formatted.length(); i++) {
+            buffer[position++] = (byte) formatted.charAt(i);
+        }
+        buffer[position++] = '\n';
+    }
+
+    private void appendUnreachable() {
+        for (int i = 0; i < UNREACHABLE.length(); i++) {
+            buffer[position++] = (byte) UNREACHABLE.charAt(i);
+        }
+    }
+
+    private void appendLong(long value) {
+        // Digits are taken from the negated value, so Long.MIN_VALUE needs no special case
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[position++] = '-';
+        } else {
+            remaining = -remaining;
+        }
+        final int begin = position;
+        do {
+            buffer[position++] = (byte) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        for (int i = begin, j = position - 1; i < j; i++, j--) {
+            final byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams edges in the text format read by
+ * {@link com.kpi.multithreading.bellman_ford_parallel.service.readers.GraphReader}, one {@code source target weight}
+ * line per edge. Numbers are formatted by hand into a byte buffer, so writing allocates nothing per edge.
+ */
+public class TextEdgeWriter implements EdgeSink {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Longest line: three ints with signs, two separators and a line feed.
+     */
+    private static final int MAX_LINE = 3 * 11 + 3;
+
+    private final OutputStream output;
+
+    private final boolean weighted;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    /**
+     * @param filePath file to create or overwrite.
+     * @param weighted whether to write the weight column.
+     */
+    public TextEdgeWriter(String filePath, boolean weighted) throws IOException {
+        this.output = Files.newOutputStream(Path.of(filePath));
+        this.weighted = weighted;
+    }
+
+    @Override
+    public void edge(int source, int target, int weight) throws IOException {
+        if (position + MAX_LINE > buffer.length) {
+            flush();
+        }
+        appendInt(source);
+        buffer[position++] = ' ';
+        appendInt(target);
+        if (weighted) {
+            buffer[position++] = ' ';
+            appendInt(weight);
+        }
+        buffer[position++] = '\n';
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void appendInt(int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[position++] = '-';
+            remaining = -remaining;
+        }
+        final int begin = position;
+        do {
+            buffer[position++] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        for (int i = begin, j = position - 1; i < j; i++, j--) {
+            final byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+    }
+
+    private void flush() throws IOException {
+        output.write(buffer, 0, position);
+        position = 0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdjacencyListGraphTest {
+
+    private final AdjacencyListGraph graph = new AdjacencyListGraph(
+            new int[] {3, 0, 1, 0, 3},
+            new int[] {1, 2, 2, 1, 0},
+            new int[] {7, 4, 3, -1, 5},
+            5);
+
+    @Test
+    void buildsCsrBySource() {
+        assertEquals(4, graph.getVerticesNumber());
+        assertEquals(5, graph.getEdgesNumber());
+        assertArrayEquals(new int[] {0, 2, 3, 3, 5}, graph.getOffsets());
+        assertArrayEquals(new int[] {2, 1, 2, 1, 0}, graph.getTargets());
+        assertArrayEquals(new int[] {4, -1, 3, 7, 5}, graph.getWeights());
+    }
+
+    @Test
+    void indexedAccess() {
+        assertEquals(new Edge(0, 2, 4), graph.getEdge(0));
+        assertEquals(3, graph.getSource(3));
+        assertEquals(3, graph.getSource(4));
+        assertEquals(1, graph.getSource(2));
+        assertEquals(List.of(new Edge(3, 1, 7), new Edge(3, 0, 5)), graph.getNeighbours(3));
+        assertEquals(0, graph.getNeighbours(2).size());
+        assertThrows(IllegalArgumentException.class, () -> graph.getNeighbours(4));
+    }
+
+    @Test
+    void reversedView() {
+        final ReversedGraph reversed = graph.getReversed();
+        assertArrayEquals(new int[] {0, 1, 3, 5, 5}, reversed.getOffsets());
+        assertArrayEquals(new int[] {3, 0, 3, 0, 1}, reversed.getSources());
+        assertArrayEquals(new int[] {5, -1, 7, 4, 3}, reversed.getWeights());
+        assertEquals(2, reversed.getInDegree(1));
+    }
+}
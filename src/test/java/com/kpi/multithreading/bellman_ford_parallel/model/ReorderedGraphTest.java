@@ -0,0 +1,60 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordParallel;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordSequential;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.GraphReader;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReorderedGraphTest {
+
+    @ParameterizedTest
+    @EnumSource(ReorderedGraph.Order.class)
+    void keepsEdgesAndSortsRows(ReorderedGraph.Order order) {
+        final AdjacencyListGraph graph = new AdjacencyListGraph(
+                new int[] {3, 0, 1, 0, 3, 4},
+                new int[] {1, 2, 2, 1, 0, 4},
+                new int[] {7, 4, 3, -1, 5, 2},
+                6);
+        final ReorderedGraph reordered = ReorderedGraph.of(graph, order);
+        final AdjacencyListGraph renumbered = reordered.getGraph();
+        assertEquals(graph.getVerticesNumber(), renumbered.getVerticesNumber());
+        assertEquals(graph.getEdgesNumber(), renumbered.getEdgesNumber());
+        for (int v = 0; v < graph.getVerticesNumber(); v++) {
+            assertEquals(v, reordered.toOriginal(reordered.toReordered(v)));
+            assertEquals(graph.getOutDegree(v), renumbered.getOutDegree(reordered.toReordered(v)));
+        }
+        for (int i = 0; i < renumbered.getEdgesNumber(); i++) {
+            final Edge edge = renumbered.getEdge(i);
+            assertTrue(graph.getNeighbours(reordered.toOriginal(edge.nodeA()))
+                    .contains(new Edge(reordered.toOriginal(edge.nodeA()), reordered.toOriginal(edge.nodeB()),
+                            edge.price())));
+            if (i > renumbered.getOffsets()[edge.nodeA()]) {
+                assertTrue(renumbered.getTarget(i - 1) <= edge.nodeB());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReorderedGraph.Order.class)
+    void solvesToSameDistances(ReorderedGraph.Order order) throws IOException, URISyntaxException {
+        final String file = Path.of(getClass().getClassLoader().getResource("small.txt").toURI()).toString();
+        final AdjacencyListGraph graph = new GraphReader().readWeightedGraph(file, 0);
+        final ReorderedGraph reordered = ReorderedGraph.of(graph, order);
+        try (BellmanFordParallel parallel = new BellmanFordParallel(4)) {
+            for (int source = 0; source < 5; source++) {
+                final int[] expected = new BellmanFordSequential().solve(graph, source).getDistances();
+                final ShortestPathResult result = parallel.solve(reordered.getGraph(), reordered.toReordered(source));
+                assertArrayEquals(expected, reordered.toOriginal(result.getDistances()));
+            }
+        }
+    }
+}
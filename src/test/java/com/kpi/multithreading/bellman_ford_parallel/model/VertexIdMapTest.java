@@ -0,0 +1,34 @@
+package com.kpi.multithreading.bellman_ford_parallel.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VertexIdMapTest {
+
+    @Test
+    void numbersIdsInOrderOfAppearance() {
+        final VertexIdMap ids = new VertexIdMap();
+        assertEquals(0, ids.add(9_000_000_000L));
+        assertEquals(1, ids.add(-5));
+        assertEquals(0, ids.add(9_000_000_000L));
+        assertEquals(2, ids.add(0));
+        assertEquals(3, ids.size());
+        assertEquals(-5, ids.toExternal(1));
+        assertEquals(-1, ids.get(7));
+        assertThrows(IllegalArgumentException.class, () -> ids.toDense(7));
+    }
+
+    @Test
+    void growsBeyondExpectedSize() {
+        final VertexIdMap ids = new VertexIdMap(4);
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, ids.add(i * 1_000_003L));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, ids.toDense(i * 1_000_003L));
+            assertEquals(i * 1_000_003L, ids.toExternal(i));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.PartitionedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.BinaryGraphReader;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.GraphReader;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.PartitionedGraphReader;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.BinaryGraphWriter;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.PartitionedGraphWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BellmanFordOutOfCoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void matchesSequential() throws IOException, URISyntaxException {
+        final String text = Path.of(getClass().getClassLoader().getResource("small.txt").toURI()).toString();
+        final AdjacencyListGraph graph = new GraphReader().readWeightedGraph(text, 0);
+        final BellmanFordSequential sequential = new BellmanFordSequential();
+        try (BellmanFordOutOfCore solver = new BellmanFordOutOfCore()) {
+            for (int blockEdges : new int[] {1, 1000, PartitionedGraphWriter.DEFAULT_BLOCK_EDGES}) {
+                final PartitionedGraph partitioned = partition(graph, blockEdges);
+                assertEquals(graph.getEdgesNumber(), partitioned.getEdgesNumber());
+                assertTrue(blockEdges > 1000 || partitioned.getBlocksNumber() > 1);
+                for (int source = 0; source < 3; source++) {
+                    assertArrayEquals(sequential.solve(graph, source).getDistances(),
+                            solver.solve(partitioned, source).getDistances());
+                }
+            }
+        }
+    }
+
+    @Test
+    void negativeCycle() throws IOException {
+        final AdjacencyListGraph graph = new AdjacencyListGraph(new int[] {0, 1, 2, 2}, new int[] {1, 2, 0, 3},
+                new int[] {1, -3, 1, 4}, 4);
+        try (BellmanFordOutOfCore solver = new BellmanFordOutOfCore()) {
+            final NegativeCycleException exception = assertThrows(NegativeCycleException.class,
+                    () -> solver.solve(partition(graph, 2), 0));
+            assertEquals(3, exception.getCycle().length);
+        }
+    }
+
+    @Test
+    void skipsOverflowingPaths() throws IOException {
+        final AdjacencyListGraph graph = new AdjacencyListGraph(new int[] {0, 1}, new int[] {1, 2},
+                new int[] {Integer.MAX_VALUE - 10, 100}, 2);
+        try (BellmanFordOutOfCore solver = new BellmanFordOutOfCore()) {
+            assertArrayEquals(new int[] {0, Integer.MAX_VALUE - 10, ShortestPathResult.INFINITY},
+                    solver.solve(partition(graph, 1), 0).getDistances());
+        }
+    }
+
+    private PartitionedGraph partition(AdjacencyListGraph graph, int blockEdges) throws IOException {
+        final String binary = directory.resolve("graph-" + blockEdges + ".bin").toString();
+        final String partitions = directory.resolve("graph-" + blockEdges + ".part").toString();
+        new BinaryGraphWriter().write(graph, binary);
+        new PartitionedGraphWriter(blockEdges).write(new BinaryGraphReader().open(binary), partitions);
+        assertFalse(Files.exists(Path.of(partitions + ".tmp")));
+        return new PartitionedGraphReader().open(partitions);
+    }
+}
@@ -1,6 +1,18 @@
 package com.kpi.multithreading.bellman_ford_parallel.service;
 
 import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.Edge;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ReversedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RoundMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathTree;
+import com.kpi.multithreading.bellman_ford_parallel.model.SolverMetrics;
+import com.kpi.multithreading.bellman_ford_parallel.service.generators.GraphGenerator;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -15,8 +27,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class BellmanFordTest {
 
@@ -79,24 +98,464 @@ class BellmanFordTest {
 
     private final BellmanFordParallel bellmanFordParallel = new BellmanFordParallel(10);
 
+    private final BellmanFordParallel bellmanFordBarrier = new BellmanFordParallel(4,
+            BellmanFordParallel.Strategy.BARRIER);
+
+    private final BellmanFordParallel bellmanFordPush = new BellmanFordParallel(4,
+            BellmanFordParallel.Strategy.PUSH);
+
+    private final BellmanFordParallel bellmanFordStealing = new BellmanFordParallel(4,
+            BellmanFordParallel.Strategy.WORK_STEALING, 64);
+
+    private final SpfaSequential spfaSequential = new SpfaSequential();
+
+    private final BellmanFordYen bellmanFordYen = new BellmanFordYen();
+
+    private final SpfaParallel spfaParallel = new SpfaParallel(4);
+
+    private final DeltaStepping deltaStepping = new DeltaStepping(4);
+
+    @AfterEach
+    void closeSolvers() {
+        bellmanFordParallel.close();
+        bellmanFordBarrier.close();
+        bellmanFordPush.close();
+        bellmanFordStealing.close();
+        spfaParallel.close();
+        deltaStepping.close();
+    }
+
     @ParameterizedTest
     @MethodSource("graphs")
     void solveTest(AdjacencyListGraph graph) {
         // [0, -1, 2, -2, 1]
-        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, bellmanFordSequential.solve(graph, 0));
+        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, bellmanFordSequential.solve(graph, 0).getDistances());
+    }
+
+    @ParameterizedTest
+    @MethodSource("graphs")
+    void solveYen(AdjacencyListGraph graph) {
+        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, bellmanFordYen.solve(graph, 0).getDistances());
+    }
+
+    @Test
+    void verifyYen() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        for (int source = 0; source < 5; source++) {
+            ShortestPathResult expected = bellmanFordSequential.solve(graph, source);
+            ShortestPathResult result = bellmanFordYen.solve(graph, source);
+            Assertions.assertArrayEquals(expected.getDistances(), result.getDistances());
+            Assertions.assertTrue(result.getRounds() <= expected.getRounds());
+        }
+        AdjacencyListGraph generated = new GraphGenerator(GraphGenerator.Type.GRID, 2500, 0, 0, 100, 3, false)
+                .generate();
+        Assertions.assertArrayEquals(bellmanFordSequential.solve(generated, 0).getDistances(),
+                bellmanFordYen.solve(generated, 0).getDistances());
     }
 
     @ParameterizedTest
     @MethodSource("graphs")
     void solveParallel(AdjacencyListGraph graph) {
-        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, bellmanFordParallel.solve(graph, 0));
+        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, bellmanFordParallel.solve(graph, 0).getDistances());
+    }
+
+    @ParameterizedTest
+    @MethodSource("graphs")
+    void solveBarrier(AdjacencyListGraph graph) {
+        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, bellmanFordBarrier.solve(graph, 0).getDistances());
+    }
+
+    @ParameterizedTest
+    @MethodSource("graphs")
+    void solvePush(AdjacencyListGraph graph) {
+        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, bellmanFordPush.solve(graph, 0).getDistances());
+    }
+
+    @Test
+    void verifyPush() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        for (int source = 0; source < 5; source++) {
+            Assertions.assertArrayEquals(bellmanFordSequential.solve(graph, source).getDistances(),
+                    bellmanFordPush.solve(graph, source).getDistances());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("graphs")
+    void solveWorkStealing(AdjacencyListGraph graph) {
+        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, bellmanFordStealing.solve(graph, 0).getDistances());
+    }
+
+    @Test
+    void verifyGrainSize() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        try (BellmanFordParallel fineTasks = new BellmanFordParallel(4, BellmanFordParallel.Strategy.TASKS, 16)) {
+            for (int source = 0; source < 5; source++) {
+                int[] expected = bellmanFordSequential.solve(graph, source).getDistances();
+                Assertions.assertArrayEquals(expected, fineTasks.solve(graph, source).getDistances());
+                Assertions.assertArrayEquals(expected, bellmanFordStealing.solve(graph, source).getDistances());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("graphs")
+    void solveSpfa(AdjacencyListGraph graph) {
+        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, spfaSequential.solve(graph, 0).getDistances());
+        assertArrayEquals(new int[] {0, -1, 2, -2, 1}, spfaParallel.solve(graph, 0).getDistances());
+    }
+
+    @Test
+    void verifySpfa() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        for (int source = 0; source < 5; source++) {
+            int[] expected = bellmanFordSequential.solve(graph, source).getDistances();
+            Assertions.assertArrayEquals(expected, spfaSequential.solve(graph, source).getDistances());
+            Assertions.assertArrayEquals(expected, spfaParallel.solve(graph, source).getDistances());
+        }
+    }
+
+    @Test
+    void verifyDelta() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        try (DeltaStepping sequentialDelta = new DeltaStepping(1, 3)) {
+            for (int source = 0; source < 5; source++) {
+                int[] expected = bellmanFordSequential.solve(graph, source).getDistances();
+                Assertions.assertArrayEquals(expected, deltaStepping.solve(graph, source).getDistances());
+                Assertions.assertArrayEquals(expected, sequentialDelta.solve(graph, source).getDistances());
+            }
+        }
+    }
+
+    @Test
+    void verifyDeltaGenerated() {
+        for (GraphGenerator.Type type : GraphGenerator.Type.values()) {
+            AdjacencyListGraph graph = new GraphGenerator(type, 5000, 40_000, 0, 1000, 7, false).generate();
+            int[] expected = bellmanFordSequential.solve(graph, 0).getDistances();
+            for (int delta : new int[] {DeltaStepping.AUTO_DELTA, 1, 50, 5000}) {
+                try (DeltaStepping solver = new DeltaStepping(4, delta)) {
+                    Assertions.assertArrayEquals(expected, solver.solve(graph, 0).getDistances());
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("graphs")
+    void deltaRejectsNegativeWeights(AdjacencyListGraph graph) {
+        Assertions.assertFalse(DeltaStepping.supports(graph));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> deltaStepping.solve(graph, 0));
+    }
+
+    @Test
+    void intSolversSkipOverflowingPaths() {
+        AdjacencyListGraph graph = new AdjacencyListGraph(new int[] {0, 1}, new int[] {1, 2},
+                new int[] {Integer.MAX_VALUE - 10, 100}, 2);
+        int[] expected = {0, Integer.MAX_VALUE - 10, ShortestPathResult.INFINITY};
+        for (ShortestPathSolver solver : List.of(bellmanFordSequential, bellmanFordParallel, bellmanFordBarrier,
+                bellmanFordPush, bellmanFordStealing, spfaSequential, bellmanFordYen, spfaParallel, deltaStepping)) {
+            Assertions.assertArrayEquals(expected, solver.solve(graph, 0).getDistances(), solver.toString());
+        }
+        Assertions.assertArrayEquals(expected,
+                new BellmanFordBatch().solveMany(graph, new int[] {0})[0].getDistances());
+    }
+
+    @Test
+    void verifyBatch() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        int[] sources = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 1};
+        try (BellmanFordBatch batch = new BellmanFordBatch(4, 5)) {
+            ShortestPathResult[] results = batch.solveMany(graph, sources);
+            ShortestPathResult[] sequentialBatches = new BellmanFordBatch().solveMany(graph, sources);
+            for (int i = 0; i < sources.length; i++) {
+                ShortestPathResult expected = bellmanFordSequential.solve(graph, sources[i]);
+                Assertions.assertEquals(sources[i], results[i].getSource());
+                Assertions.assertArrayEquals(expected.getDistances(), results[i].getDistances());
+                Assertions.assertEquals(expected.getRounds(), results[i].getRounds());
+                Assertions.assertArrayEquals(expected.getDistances(), sequentialBatches[i].getDistances());
+            }
+        }
+    }
+
+    @Test
+    void verifyBarrier() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        Assertions.assertArrayEquals(bellmanFordSequential.solve(graph, 1).getDistances(),
+                bellmanFordBarrier.solve(graph, 1).getDistances());
+    }
+
+    @Test
+    void stopsWhenConverged() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        Assertions.assertTrue(bellmanFordSequential.solve(graph, 1).getRounds() < graph.getVerticesNumber() - 1);
+        Assertions.assertTrue(bellmanFordParallel.solve(graph, 1).getRounds() < graph.getVerticesNumber() - 1);
+        Assertions.assertTrue(bellmanFordBarrier.solve(graph, 1).getRounds() < graph.getVerticesNumber() - 1);
+    }
+
+    @Test
+    void negativeCycle() {
+        AdjacencyListGraph graph = new AdjacencyListGraph(new int[] {0, 1, 2, 2}, new int[] {1, 2, 0, 3},
+                new int[] {1, -3, 1, 4}, 4);
+        NegativeCycleException exception = Assertions.assertThrows(NegativeCycleException.class,
+                () -> bellmanFordSequential.solve(graph, 0));
+        int[] cycle = exception.getCycle();
+        Assertions.assertEquals(3, cycle.length);
+        int length = 0;
+        for (int i = 0; i < cycle.length; i++) {
+            length += weight(graph, cycle[i], cycle[(i + 1) % cycle.length]);
+        }
+        Assertions.assertTrue(length < 0);
+        Assertions.assertThrows(NegativeCycleException.class, () -> bellmanFordParallel.solve(graph, 0));
+        Assertions.assertThrows(NegativeCycleException.class, () -> bellmanFordBarrier.solve(graph, 0));
+        Assertions.assertThrows(NegativeCycleException.class, () -> bellmanFordPush.solve(graph, 0));
+        Assertions.assertThrows(NegativeCycleException.class, () -> bellmanFordStealing.solve(graph, 0));
+        Assertions.assertThrows(NegativeCycleException.class, () -> spfaSequential.solve(graph, 0));
+        Assertions.assertThrows(NegativeCycleException.class, () -> bellmanFordYen.solve(graph, 0));
+        Assertions.assertThrows(NegativeCycleException.class, () -> spfaParallel.solve(graph, 0));
+        Assertions.assertThrows(NegativeCycleException.class,
+                () -> new BellmanFordBatch().solveMany(graph, new int[] {3, 0}));
+    }
+
+    @Test
+    void workerFailureIsNotCycle() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        SolverListener failing = new SolverListener() {
+            @Override
+            public void roundCompleted(RoundMetrics round) {
+                throw new UnsupportedOperationException("listener failed");
+            }
+        };
+        for (BellmanFordParallel solver : List.of(bellmanFordBarrier, bellmanFordPush)) {
+            RuntimeException exception = Assertions.assertThrows(RuntimeException.class,
+                    () -> solver.solve(graph, 1, failing));
+            Assertions.assertFalse(exception instanceof NegativeCycleException);
+            Assertions.assertInstanceOf(UnsupportedOperationException.class, exception.getCause().getCause());
+            Assertions.assertArrayEquals(bellmanFordSequential.solve(graph, 1).getDistances(),
+                    solver.solve(graph, 1).getDistances());
+        }
+    }
+
+    @Test
+    void barrierWorkerFailure() throws InterruptedException {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        BellmanFordParallel.RoundTask failing = new BellmanFordParallel.RoundTask() {
+            @Override
+            public void run() {
+                throw new UnsupportedOperationException("worker failed");
+            }
+
+            @Override
+            public boolean isChanged() {
+                return false;
+            }
+
+            @Override
+            public RelaxationCounters getCounters() {
+                return new RelaxationCounters();
+            }
+        };
+        AdjacencyListGraph graph = new AdjacencyListGraph(new int[] {0}, new int[] {1}, new int[] {1}, 1);
+        int[] distances = {0, Integer.MAX_VALUE};
+        ReversedGraph byDestination = graph.getReversed();
+        BellmanFordParallel.RoundState state = new BellmanFordParallel.RoundState(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Void> healthy = pool.submit(new BellmanFordParallel.BarrierWorker(
+                    new BellmanFordParallel.RecomputeDistanceTask(byDestination, distances, 0, 2),
+                    new BellmanFordParallel.VerifyDistanceTask(byDestination, distances, 0, 2), barrier, state));
+            Future<Void> broken = pool.submit(new BellmanFordParallel.BarrierWorker(failing,
+                    new BellmanFordParallel.VerifyDistanceTask(byDestination, distances, 0, 2), barrier, state));
+            ExecutionException failure = Assertions.assertThrows(ExecutionException.class, broken::get);
+            Assertions.assertInstanceOf(UnsupportedOperationException.class, failure.getCause());
+            ExecutionException released = Assertions.assertThrows(ExecutionException.class, healthy::get);
+            Assertions.assertInstanceOf(BrokenBarrierException.class, released.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("graphs")
+    void paths(AdjacencyListGraph graph) {
+        ShortestPathTree tree = bellmanFordPush.solveTree(graph, 0);
+        assertArrayEquals(new int[] {0, 1, 4, 3}, tree.getPath(3));
+        assertArrayEquals(new int[] {0}, tree.getPath(0));
+        assertEquals(-1, tree.getPredecessor(0));
+
+        List<String> paths = new ArrayList<>();
+        tree.forEachPath(new int[] {2, 4}, (target, path, length) ->
+                paths.add(target + ":" + Arrays.toString(Arrays.copyOf(path, length))));
+        assertEquals(List.of("2:[0, 1, 2]", "4:[0, 1, 4]"), paths);
+    }
+
+    @Test
+    void verifyPaths() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        for (ShortestPathSolver solver : List.of(bellmanFordSequential, bellmanFordParallel, bellmanFordPush,
+                bellmanFordStealing, spfaParallel)) {
+            ShortestPathResult result = solver.solve(graph, 1);
+            ShortestPathTree tree = ShortestPathTree.of(graph, result);
+            int[] distances = result.getDistances();
+            for (int target = 0; target < graph.getVerticesNumber(); target++) {
+                int[] path = tree.getPath(target);
+                Assertions.assertEquals(distances[target] == Integer.MAX_VALUE, path.length == 0);
+                if (path.length == 0) {
+                    continue;
+                }
+                Assertions.assertEquals(1, path[0]);
+                int length = 0;
+                for (int i = 1; i < path.length; i++) {
+                    length += weight(graph, path[i - 1], path[i]);
+                }
+                Assertions.assertEquals(distances[target], length);
+            }
+        }
+    }
+
+    @Test
+    void reportsMetrics() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        for (ShortestPathSolver solver : List.of(bellmanFordSequential, bellmanFordParallel, bellmanFordBarrier,
+                bellmanFordPush, bellmanFordStealing, spfaSequential, spfaParallel)) {
+            MetricsRecorder recorder = new MetricsRecorder();
+            ShortestPathResult result = solver.solve(graph, 1, recorder);
+            SolverMetrics metrics = recorder.getMetrics();
+            Assertions.assertEquals(result.getRounds(), metrics.getRounds().size());
+            Assertions.assertEquals(1, metrics.getRounds().get(0).getRound());
+            Assertions.assertTrue(metrics.getRelaxationsSuccessful() > 0);
+            Assertions.assertTrue(metrics.getRelaxationsAttempted() >= metrics.getRelaxationsSuccessful());
+            // Converged, so the last round changed nothing
+            RoundMetrics last = metrics.getRounds().get(metrics.getRounds().size() - 1);
+            Assertions.assertEquals(0, last.getRelaxationsSuccessful());
+            Assertions.assertEquals(0, last.getActiveVertices());
+        }
+
+        MetricsRecorder recorder = new MetricsRecorder();
+        bellmanFordBarrier.solve(graph, 1, recorder);
+        Assertions.assertEquals(4, recorder.getMetrics().getWorkers().size());
+        Assertions.assertTrue(recorder.getMetrics().toJson().startsWith("{\"loadNanos\":0,"));
+    }
+
+    @Test
+    void reportsWideMetrics() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        try (BellmanFordLong sequential = new BellmanFordLong(); BellmanFordDouble parallel = new BellmanFordDouble(2)) {
+            MetricsRecorder sequentialRecorder = new MetricsRecorder();
+            LongShortestPathResult longResult = sequential.solve(LongWeightedGraph.of(graph), 1, sequentialRecorder);
+            MetricsRecorder parallelRecorder = new MetricsRecorder();
+            DoubleShortestPathResult doubleResult = parallel.solve(DoubleWeightedGraph.of(graph), 1,
+                    parallelRecorder);
+            for (MetricsRecorder recorder : List.of(sequentialRecorder, parallelRecorder)) {
+                SolverMetrics metrics = recorder.getMetrics();
+                Assertions.assertTrue(metrics.getRelaxationsSuccessful() > 0);
+                Assertions.assertTrue(metrics.getRelaxationsAttempted() >= metrics.getRelaxationsSuccessful());
+                Assertions.assertEquals(0, metrics.getRounds().get(metrics.getRounds().size() - 1)
+                        .getRelaxationsSuccessful());
+            }
+            Assertions.assertEquals(longResult.getRounds(), sequentialRecorder.getMetrics().getRounds().size());
+            Assertions.assertEquals(doubleResult.getRounds(), parallelRecorder.getMetrics().getRounds().size());
+            Assertions.assertTrue(sequentialRecorder.getMetrics().getWorkers().isEmpty());
+            Assertions.assertEquals(8, parallelRecorder.getMetrics().getWorkers().size());
+        }
+    }
+
+    @Test
+    void verifyLong() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        LongWeightedGraph wide = LongWeightedGraph.of(graph);
+        try (BellmanFordLong sequential = new BellmanFordLong(); BellmanFordLong parallel = new BellmanFordLong(4)) {
+            for (int source = 0; source < 5; source++) {
+                int[] expected = bellmanFordSequential.solve(graph, source).getDistances();
+                long[] widened = Arrays.stream(expected)
+                        .mapToLong(d -> d == ShortestPathResult.INFINITY ? LongShortestPathResult.INFINITY : d)
+                        .toArray();
+                Assertions.assertArrayEquals(widened, sequential.solve(wide, source).getDistances());
+                Assertions.assertArrayEquals(widened, parallel.solve(wide, source).getDistances());
+            }
+        }
+    }
+
+    @Test
+    void longDistancesDoNotOverflow() {
+        // A chain of heavy edges whose length exceeds the int range, and a node without in-edges
+        LongWeightedGraph graph = new LongWeightedGraph(new int[] {0, 1, 2, 3, 3, 4},
+                new int[] {1, 2, 3, 0}, new long[] {2_000_000_000L, 2_000_000_000L, 5_000_000_000L, 1});
+        AdjacencyListGraph narrow = new AdjacencyListGraph(new int[] {0, 1, 2, 2}, new int[] {1, 2, 3},
+                new int[] {2_000_000_000, 2_000_000_000, 7}, 3);
+        Assertions.assertFalse(BellmanFordLong.fitsInt(narrow));
+        try (BellmanFordLong sequential = new BellmanFordLong(); BellmanFordLong parallel = new BellmanFordLong(2)) {
+            long[] expected = {0, 2_000_000_000L, 4_000_000_000L, 9_000_000_000L, LongShortestPathResult.INFINITY};
+            LongShortestPathResult result = sequential.solve(graph, 0);
+            Assertions.assertArrayEquals(expected, result.getDistances());
+            Assertions.assertFalse(result.isReachable(4));
+            Assertions.assertArrayEquals(expected, parallel.solve(graph, 0).getDistances());
+            Assertions.assertThrows(IllegalArgumentException.class, () -> sequential.solve(new LongWeightedGraph(
+                    new int[] {0, 1, 1}, new int[] {1}, new long[] {Long.MAX_VALUE / 2}), 0));
+        }
+    }
+
+    @Test
+    void solveDouble() {
+        DoubleWeightedGraph graph = new DoubleWeightedGraph(new int[] {0, 2, 3, 3, 3}, new int[] {1, 2, 2},
+                new double[] {0.5, 2.25, -1.5});
+        try (BellmanFordDouble sequential = new BellmanFordDouble();
+             BellmanFordDouble parallel = new BellmanFordDouble(2)) {
+            double[] expected = {0, 0.5, -1, DoubleShortestPathResult.INFINITY};
+            Assertions.assertArrayEquals(expected, sequential.solve(graph, 0).getDistances());
+            Assertions.assertArrayEquals(expected, parallel.solve(graph, 0).getDistances());
+        }
+    }
+
+    @Test
+    void zeroCycleDouble() {
+        DoubleWeightedGraph graph = new DoubleWeightedGraph(new int[] {0, 1, 2, 3}, new int[] {1, 2, 0},
+                new double[] {0.1, 0.7, -0.8});
+        try (BellmanFordDouble sequential = new BellmanFordDouble();
+             BellmanFordDouble parallel = new BellmanFordDouble(2)) {
+            Assertions.assertEquals(0, sequential.solve(graph, 0).getDistances()[0]);
+            Assertions.assertEquals(0, parallel.solve(graph, 0).getDistances()[0]);
+        }
+        Assertions.assertNull(NegativeCycleFinder.find(graph, 0));
+    }
+
+    @Test
+    void negativeCycleWide() {
+        AdjacencyListGraph graph = new AdjacencyListGraph(new int[] {0, 1, 2, 2}, new int[] {1, 2, 0, 3},
+                new int[] {1, -3, 1, 4}, 4);
+        try (BellmanFordLong sequential = new BellmanFordLong(); BellmanFordDouble parallel = new BellmanFordDouble(2)) {
+            NegativeCycleException exception = Assertions.assertThrows(NegativeCycleException.class,
+                    () -> sequential.solve(LongWeightedGraph.of(graph), 0));
+            Assertions.assertEquals(3, exception.getCycle().length);
+            Assertions.assertThrows(NegativeCycleException.class,
+                    () -> parallel.solve(DoubleWeightedGraph.of(graph), 0));
+        }
+    }
+
+    @Test
+    void reuseParallel() throws IOException, URISyntaxException {
+        AdjacencyListGraph graph = readGraph("small.txt", 0);
+        for (int source = 0; source < 3; source++) {
+            Assertions.assertArrayEquals(bellmanFordSequential.solve(graph, source).getDistances(),
+                    bellmanFordParallel.solve(graph, source).getDistances());
+        }
     }
 
     @Test
     void verifyParallel() throws IOException, URISyntaxException {
         AdjacencyListGraph graph = readGraph("small.txt", 0);
-        Assertions.assertArrayEquals(bellmanFordParallel.solve(graph, 1),
-                bellmanFordSequential.solve(graph, 1));
+        Assertions.assertArrayEquals(bellmanFordParallel.solve(graph, 1).getDistances(),
+                bellmanFordSequential.solve(graph, 1).getDistances());
+    }
+
+    /**
+     * Lightest edge from {@code u} to {@code v}.
+     */
+    private static int weight(AdjacencyListGraph graph, int u, int v) {
+        return graph.getNeighbours(u).stream()
+                .filter(edge -> edge.nodeB() == v)
+                .mapToInt(Edge::price)
+                .min()
+                .orElseThrow();
     }
 
     AdjacencyListGraph readGraph(String name, int skip) throws URISyntaxException, IOException {
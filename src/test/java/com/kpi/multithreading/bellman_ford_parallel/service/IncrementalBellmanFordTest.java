@@ -0,0 +1,83 @@
+package com.kpi.multithreading.bellman_ford_parallel.service;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.DynamicGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.Edge;
+import com.kpi.multithreading.bellman_ford_parallel.service.generators.GraphGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IncrementalBellmanFordTest {
+
+    private final BellmanFordSequential sequential = new BellmanFordSequential();
+
+    @Test
+    void dynamicGraph() {
+        final DynamicGraph graph = new DynamicGraph(new AdjacencyListGraph(new int[] {0, 1, 1}, new int[] {1, 2, 0},
+                new int[] {5, 6, 7}, 3));
+        assertEquals(0, graph.findEdge(0, 1));
+        assertEquals(-1, graph.findEdge(2, 0));
+        final int inserted = graph.addEdge(2, 0, -1);
+        assertEquals(3, inserted);
+        assertEquals(inserted, graph.findEdge(2, 0));
+        assertEquals(2, graph.getSource(inserted));
+        graph.setWeight(0, 4);
+
+        final AdjacencyListGraph compact = graph.toAdjacencyListGraph();
+        assertArrayEquals(new int[] {0, 1, 3, 4}, compact.getOffsets());
+        assertArrayEquals(new int[] {1, 2, 0, 0}, compact.getTargets());
+        assertArrayEquals(new int[] {4, 6, 7, -1}, compact.getWeights());
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(0, 3, 1));
+    }
+
+    @Test
+    void matchesFullSolve() {
+        final DynamicGraph graph = new DynamicGraph(new GraphGenerator(GraphGenerator.Type.ERDOS_RENYI, 2000, 8000,
+                3).generate());
+        final IncrementalBellmanFord incremental = new IncrementalBellmanFord(graph, 0);
+        final SplittableRandom random = new SplittableRandom(5);
+        for (int batch = 0; batch < 50; batch++) {
+            final List<Edge> updates = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                if (random.nextBoolean()) {
+                    // Reweight an existing edge, up or down
+                    final int edge = random.nextInt(graph.getEdgesNumber());
+                    updates.add(new Edge(graph.getSource(edge), graph.getTarget(edge), 1 + random.nextInt(200)));
+                } else {
+                    updates.add(new Edge(random.nextInt(2000), random.nextInt(2000), 1 + random.nextInt(100)));
+                }
+            }
+            incremental.update(updates);
+            final int[] expected = sequential.solve(graph.toAdjacencyListGraph(), 0).getDistances();
+            assertArrayEquals(expected, incremental.getResult().getDistances());
+            for (int v = 1; v < 2000; v++) {
+                final int edge = incremental.getPredecessorEdge(v);
+                if (expected[v] != Integer.MAX_VALUE) {
+                    assertEquals(expected[v], expected[incremental.getPredecessor(v)] + graph.getWeight(edge));
+                }
+            }
+        }
+    }
+
+    @Test
+    void negativeCycle() {
+        final DynamicGraph graph = new DynamicGraph(new GraphGenerator(GraphGenerator.Type.GRID, 400, 0, 9)
+                .generate());
+        final IncrementalBellmanFord incremental = new IncrementalBellmanFord(graph, 0);
+        // Right then left between 21 and 22 costs -2
+        final List<Edge> cycle = List.of(new Edge(21, 22, -1), new Edge(22, 21, -1));
+        assertThrows(IllegalStateException.class, () -> incremental.update(cycle));
+        assertThrows(IllegalStateException.class, incremental::getResult);
+
+        incremental.update(List.of(new Edge(22, 21, 1)));
+        assertArrayEquals(sequential.solve(graph.toAdjacencyListGraph(), 0).getDistances(),
+                incremental.getResult().getDistances());
+    }
+}
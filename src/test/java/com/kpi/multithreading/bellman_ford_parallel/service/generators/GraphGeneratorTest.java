@@ -0,0 +1,86 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.generators;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordSequential;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.BinaryGraphReader;
+import com.kpi.multithreading.bellman_ford_parallel.service.readers.GraphReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void deterministic() {
+        for (GraphGenerator.Type type : GraphGenerator.Type.values()) {
+            final AdjacencyListGraph first = new GraphGenerator(type, 1000, 8000, 7).generate();
+            final AdjacencyListGraph second = new GraphGenerator(type, 1000, 8000, 7).generate();
+            assertArrayEquals(first.getOffsets(), second.getOffsets());
+            assertArrayEquals(first.getTargets(), second.getTargets());
+            assertArrayEquals(first.getWeights(), second.getWeights());
+        }
+    }
+
+    @Test
+    void expectedSize() {
+        final AdjacencyListGraph random = new GraphGenerator(GraphGenerator.Type.ERDOS_RENYI, 2000, 16000, 1)
+                .generate();
+        assertEquals(2000, random.getVerticesNumber());
+        assertEquals(16000, random.getEdgesNumber(), 800);
+
+        final AdjacencyListGraph rmat = new GraphGenerator(GraphGenerator.Type.RMAT, 2000, 16000, 1).generate();
+        assertEquals(16000, rmat.getEdgesNumber(), 1600);
+
+        final AdjacencyListGraph grid = new GraphGenerator(GraphGenerator.Type.GRID, 100, 0, 1).generate();
+        assertEquals(100, grid.getVerticesNumber());
+        assertEquals(4 * 10 * 9, grid.getEdgesNumber());
+        assertEquals(2, grid.getOutDegree(0));
+        assertEquals(4, grid.getOutDegree(55));
+    }
+
+    @Test
+    void weightRange() {
+        final AdjacencyListGraph graph = new GraphGenerator(GraphGenerator.Type.ERDOS_RENYI, 500, 5000, -5, 5, 3,
+                false).generate();
+        for (int weight : graph.getWeights()) {
+            assertTrue(weight >= -5 && weight <= 5);
+        }
+    }
+
+    @Test
+    void negativeCycle() {
+        final AdjacencyListGraph graph = new GraphGenerator(GraphGenerator.Type.GRID, 400, 0, 1, 100, 5, true)
+                .generate();
+        assertEquals(4 * 20 * 19 + GraphGenerator.CYCLE_LENGTH + 1, graph.getEdgesNumber());
+        assertThrows(IllegalStateException.class, () -> new BellmanFordSequential().solve(graph, 0));
+    }
+
+    @Test
+    void sinksMatchInMemory() throws IOException {
+        final GraphGenerator generator = new GraphGenerator(GraphGenerator.Type.RMAT, 1024, 6000, -3, 50, 11, true);
+        final AdjacencyListGraph graph = generator.generate();
+
+        final String text = directory.resolve("graph.txt").toString();
+        generator.writeText(text);
+        final AdjacencyListGraph fromText = new GraphReader().readWeightedGraph(text, 0);
+        assertArrayEquals(graph.getTargets(), fromText.getTargets());
+        assertArrayEquals(graph.getWeights(), fromText.getWeights());
+
+        final String binary = directory.resolve("graph.bin").toString();
+        generator.writeBinary(binary);
+        final AdjacencyListGraph fromBinary = new BinaryGraphReader().read(binary);
+        assertArrayEquals(graph.getOffsets(), fromBinary.getOffsets());
+        assertArrayEquals(graph.getTargets(), fromBinary.getTargets());
+        assertArrayEquals(graph.getWeights(), fromBinary.getWeights());
+    }
+}
@@ -0,0 +1,81 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.readers;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.MappedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.service.writers.BinaryGraphWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryGraphReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTrip() throws IOException, URISyntaxException {
+        final String text = Path.of(getClass().getClassLoader().getResource("small.txt").toURI()).toString();
+        final AdjacencyListGraph graph = new GraphReader().readWeightedGraph(text, 0);
+        final String binary = directory.resolve("small.bin").toString();
+        new BinaryGraphWriter().write(graph, binary);
+
+        assertTrue(BinaryGraphReader.isBinaryGraph(binary));
+        assertFalse(BinaryGraphReader.isBinaryGraph(text));
+
+        final MappedGraph mapped = new BinaryGraphReader().open(binary);
+        assertEquals(graph.getVerticesNumber(), mapped.getVerticesNumber());
+        assertEquals(graph.getEdgesNumber(), mapped.getEdgesNumber());
+        assertEquals(graph.getTargets()[42], mapped.getTargets().get(42));
+
+        final AdjacencyListGraph loaded = new BinaryGraphReader().read(binary);
+        assertArrayEquals(graph.getOffsets(), loaded.getOffsets());
+        assertArrayEquals(graph.getTargets(), loaded.getTargets());
+        assertArrayEquals(graph.getWeights(), loaded.getWeights());
+    }
+
+    @Test
+    void rejectTruncated() throws IOException {
+        final Path binary = directory.resolve("graph.bin");
+        new BinaryGraphWriter().write(new AdjacencyListGraph(new int[] {0, 1}, new int[] {1, 2}, new int[] {3, 4}, 2),
+                binary.toString());
+        final byte[] content = Files.readAllBytes(binary);
+        Files.write(binary, Arrays.copyOf(content, content.length - 4));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryGraphReader().open(binary.toString()));
+    }
+
+    @Test
+    void rejectTargetOutOfRange() throws IOException {
+        final Path binary = directory.resolve("graph.bin");
+        new BinaryGraphWriter().write(new AdjacencyListGraph(new int[] {0, 1}, new int[] {1, 2}, new int[] {3, 4}, 2),
+                binary.toString());
+        final byte[] content = Files.readAllBytes(binary);
+        ByteBuffer.wrap(content).order(BinaryGraphFormat.BYTE_ORDER)
+                .putInt((int) BinaryGraphFormat.targetsPosition(3), 7);
+        Files.write(binary, content);
+        assertThrows(IllegalArgumentException.class, () -> new BinaryGraphReader().open(binary.toString()));
+    }
+
+    @Test
+    void rejectDecreasingOffsets() throws IOException {
+        final Path binary = directory.resolve("graph.bin");
+        new BinaryGraphWriter().write(new AdjacencyListGraph(new int[] {0, 1}, new int[] {1, 2}, new int[] {3, 4}, 2),
+                binary.toString());
+        final byte[] content = Files.readAllBytes(binary);
+        ByteBuffer.wrap(content).order(BinaryGraphFormat.BYTE_ORDER)
+                .putInt((int) BinaryGraphFormat.offsetsPosition() + 2 * Integer.BYTES, 0);
+        Files.write(binary, content);
+        assertThrows(IllegalArgumentException.class, () -> new BinaryGraphReader().open(binary.toString()));
+    }
+}
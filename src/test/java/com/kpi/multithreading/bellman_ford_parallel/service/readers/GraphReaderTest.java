@@ -0,0 +1,116 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.readers;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.DoubleWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.LongWeightedGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.RemappedGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GraphReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readWeighted() throws IOException {
+        final Path file = write("# header\n0 1 5\r\n\n  1\t2 -3 \n2 0 7");
+        final AdjacencyListGraph graph = new GraphReader().readWeightedGraph(file.toString(), 1);
+        assertEquals(3, graph.getEdgesNumber());
+        assertArrayEquals(new int[] {0, 1, 2, 3}, graph.getOffsets());
+        assertArrayEquals(new int[] {1, 2, 0}, graph.getTargets());
+        assertArrayEquals(new int[] {5, -3, 7}, graph.getWeights());
+    }
+
+    @Test
+    void readUnweighted() throws IOException {
+        final Path file = write("0 1\n1 2\n");
+        final AdjacencyListGraph graph = new GraphReader().readUnweightedGraph(file.toString(), 0);
+        assertArrayEquals(new int[] {1, 2}, graph.getTargets());
+        assertArrayEquals(new int[] {1, 1}, graph.getWeights());
+    }
+
+    @Test
+    void rejectInvalid() throws IOException {
+        final GraphReader reader = new GraphReader();
+        assertThrows(IllegalArgumentException.class,
+                () -> reader.readWeightedGraph(write("0 1\n").toString(), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reader.readWeightedGraph(write("0 1 x2\n").toString(), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reader.readWeightedGraph(write("0 1 99999999999\n").toString(), 0));
+    }
+
+    @Test
+    void readLongWeighted() throws IOException {
+        final Path file = write("1 0 -9223372036854775808\n0 1 99999999999\n");
+        final LongWeightedGraph graph = new GraphReader().readLongWeightedGraph(file.toString(), 0);
+        assertArrayEquals(new int[] {1, 0}, graph.getTargets());
+        assertArrayEquals(new long[] {99_999_999_999L, Long.MIN_VALUE}, graph.getWeights());
+        assertThrows(IllegalArgumentException.class, () -> new GraphReader()
+                .readLongWeightedGraph(write("0 1 9223372036854775808\n").toString(), 0));
+    }
+
+    @Test
+    void readDoubleWeighted() throws IOException {
+        final Path file = write("0 1 0.1\n0 2 -2.5e3\n1 2 7\n2 0 +.25\n");
+        final DoubleWeightedGraph graph = new GraphReader().readDoubleWeightedGraph(file.toString(), 0);
+        assertArrayEquals(new double[] {0.1, -2500, 7, 0.25}, graph.getWeights());
+        final GraphReader reader = new GraphReader();
+        assertThrows(IllegalArgumentException.class,
+                () -> reader.readDoubleWeightedGraph(write("0 1 1.2.3\n").toString(), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reader.readDoubleWeightedGraph(write("0 1 NaN\n").toString(), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reader.readDoubleWeightedGraph(write("0 1 -\n").toString(), 0));
+    }
+
+    @Test
+    void readRemapped() throws IOException {
+        final Path file = write("5000000000 17 4\n17 -3 1\n-3 5000000000 2\n");
+        final RemappedGraph graph = new GraphReader().readRemappedGraph(file.toString(), 0, true);
+        assertEquals(3, graph.getGraph().getVerticesNumber());
+        assertEquals(0, graph.toDense(5_000_000_000L));
+        assertEquals(-3, graph.toExternal(2));
+        assertArrayEquals(new int[] {1, 2, 0}, graph.getGraph().getTargets());
+        assertArrayEquals(new int[] {4, 1, 2}, graph.getGraph().getWeights());
+        assertThrows(IllegalArgumentException.class, () -> graph.toDense(4));
+    }
+
+    @Test
+    void parallelRemapMatchesSequential() throws IOException, URISyntaxException {
+        final String file = Path.of(getClass().getClassLoader().getResource("small.txt").toURI()).toString();
+        final RemappedGraph sequential = new GraphReader().readRemappedGraph(file, 3, true);
+        final RemappedGraph parallel = new GraphReader(4, 1000).readRemappedGraph(file, 3, true);
+        assertArrayEquals(sequential.getGraph().getOffsets(), parallel.getGraph().getOffsets());
+        assertArrayEquals(sequential.getGraph().getTargets(), parallel.getGraph().getTargets());
+        for (int v = 0; v < sequential.getGraph().getVerticesNumber(); v++) {
+            assertEquals(sequential.toExternal(v), parallel.toExternal(v));
+        }
+    }
+
+    @Test
+    void parallelMatchesSequential() throws IOException, URISyntaxException {
+        final String file = Path.of(getClass().getClassLoader().getResource("small.txt").toURI()).toString();
+        final AdjacencyListGraph sequential = new GraphReader().readWeightedGraph(file, 3);
+        final AdjacencyListGraph parallel = new GraphReader(4, 1000).readWeightedGraph(file, 3);
+        assertArrayEquals(sequential.getOffsets(), parallel.getOffsets());
+        assertArrayEquals(sequential.getTargets(), parallel.getTargets());
+        assertArrayEquals(sequential.getWeights(), parallel.getWeights());
+    }
+
+    private Path write(String content) throws IOException {
+        final Path file = Files.createTempFile(directory, "graph", ".txt");
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,82 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.server;
+
+import com.kpi.multithreading.bellman_ford_parallel.model.AdjacencyListGraph;
+import com.kpi.multithreading.bellman_ford_parallel.model.ShortestPathResult;
+import com.kpi.multithreading.bellman_ford_parallel.service.BellmanFordSequential;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShortestPathServerTest {
+
+    private final AdjacencyListGraph graph = new AdjacencyListGraph(
+            new int[] {0, 0, 1, 3},
+            new int[] {1, 2, 2, 0},
+            new int[] {4, 9, 3, 1},
+            4);
+
+    private ShortestPathServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new ShortestPathServer(graph, BellmanFordSequential::new, 2, 1 << 20,
+                new InetSocketAddress("localhost", 0), 2);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    void answersQueries() throws IOException, InterruptedException {
+        assertEquals("0 0\n1 4\n2 7\n3 INF\n", get("/distances?source=0").body());
+        assertEquals("2 7\n3 INF\n", get("/distances?source=0&targets=2,3").body());
+        assertEquals(400, get("/distances?source=9").statusCode());
+        assertEquals(400, get("/distances").statusCode());
+        assertTrue(get("/stats").body().contains("\"cacheHits\":1"));
+    }
+
+    @Test
+    void cachesResults() throws InterruptedException {
+        final ShortestPathResult result = server.query(1);
+        assertSame(result, server.query(1));
+        assertThrows(IllegalArgumentException.class, () -> server.query(-1));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        // Room for two results of four distances each
+        final ResultCache cache = new ResultCache(2 * (96 + 16));
+        cache.put(new ShortestPathResult(0, new int[4], 1));
+        cache.put(new ShortestPathResult(1, new int[4], 1));
+        cache.get(0);
+        cache.put(new ShortestPathResult(2, new int[4], 1));
+        assertEquals(2, cache.size());
+        assertNull(cache.get(1));
+        assertEquals(0, cache.get(0).getSource());
+        cache.put(new ShortestPathResult(3, new int[100], 1));
+        assertNull(cache.get(3));
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        final InetSocketAddress address = server.getAddress();
+        final URI uri = URI.create("http://localhost:" + address.getPort() + path);
+        return HttpClient.newHttpClient().send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,89 @@
+package com.kpi.multithreading.bellman_ford_parallel.service.writers;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DistanceWriterTest {
+
+    @Test
+    void writesText() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (TextDistanceWriter writer = new TextDistanceWriter(output)) {
+            writer.begin(7, 3);
+            writer.write(7, 0);
+            writer.write(-12, Integer.MAX_VALUE);
+            writer.write(Long.MAX_VALUE, Integer.MIN_VALUE);
+            writer.begin(1, 2);
+            writer.write(1, Long.MIN_VALUE);
+            writer.write(2, 2.5);
+        }
+        assertEquals("# source 7\n7 0\n-12 INF\n9223372036854775807 -2147483648\n"
+                + "# source 1\n1 -9223372036854775808\n2 2.5\n", output.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void flushesLargeOutput() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final int vertices = 100_000;
+        try (TextDistanceWriter writer = new TextDistanceWriter(output)) {
+            writer.begin(0, vertices);
+            for (int v = 0; v < vertices; v++) {
+                writer.write(v, v * 3);
+            }
+        }
+        final String[] lines = output.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(vertices + 1, lines.length);
+        assertEquals("99999 299997", lines[vertices]);
+    }
+
+    @Test
+    void writesBinary() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryDistanceWriter writer = new BinaryDistanceWriter(output, BinaryDistanceWriter.Type.LONG)) {
+            writer.begin(5, 2);
+            writer.write(5, 0L);
+            writer.write(6, Long.MAX_VALUE);
+            assertThrows(IllegalStateException.class, () -> writer.write(7, 1));
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(BinaryDistanceWriter.HEADER_SIZE + 2 * 16, buffer.remaining());
+        assertEquals(BinaryDistanceWriter.MAGIC, buffer.getInt());
+        assertEquals(BinaryDistanceWriter.VERSION, buffer.getInt());
+        assertEquals(BinaryDistanceWriter.Type.LONG.ordinal(), buffer.getInt());
+        assertEquals(0, buffer.getInt());
+        assertEquals(5, buffer.getLong());
+        assertEquals(2, buffer.getLong());
+        assertEquals(5, buffer.getLong());
+        assertEquals(0, buffer.getLong());
+        assertEquals(6, buffer.getLong());
+        assertEquals(Long.MAX_VALUE, buffer.getLong());
+    }
+
+    @Test
+    void writesDenseBinary() throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (BinaryDistanceWriter writer = new BinaryDistanceWriter(output, BinaryDistanceWriter.Type.INT, true)) {
+            writer.begin(1, 2);
+            writer.write(0, 4);
+            writer.write(1, 0);
+            writer.begin(0, 2);
+            assertThrows(IllegalStateException.class, () -> writer.write(1, 3));
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(2 * BinaryDistanceWriter.HEADER_SIZE + 2 * Integer.BYTES, buffer.remaining());
+        buffer.position(12);
+        assertEquals(BinaryDistanceWriter.DENSE, buffer.getInt());
+        assertEquals(1, buffer.getLong());
+        assertEquals(2, buffer.getLong());
+        assertEquals(4, buffer.getInt());
+        assertEquals(0, buffer.getInt());
+    }
+}